@@ -0,0 +1,47 @@
+package com.diceprojects.msvcauthentication.blocking;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+import java.util.function.Consumer;
+
+/**
+ * Reglas de BlockHound propias del servicio. Las integraciones de Reactor y Netty (cargadas por
+ * {@link java.util.ServiceLoader}) ya marcan como no bloqueantes los hilos del event loop y de los
+ * planificadores {@code parallel}; aquí solo se añaden:
+ * <ul>
+ *     <li>el registro de cada infracción para {@link BlockingCallDetector}, además del error habitual;</li>
+ *     <li>las excepciones para bloqueos de librerías que solo esperan un cerrojo en memoria cuando hay
+ *         contención, sin E/S: la cola del appender asíncrono de logback, la limpieza de Caffeine y las
+ *         ventanas de métricas del circuit breaker.</li>
+ * </ul>
+ * La E/S real (consola, ficheros, {@code /dev/random}, sockets bloqueantes) y las esperas de BCrypt siguen
+ * detectándose.
+ */
+public class AuthenticationBlockHoundIntegration implements BlockHoundIntegration {
+
+    private final Consumer<BlockingOperationError> violations;
+
+    /**
+     * Constructor de AuthenticationBlockHoundIntegration.
+     *
+     * @param violations destino de las infracciones detectadas.
+     */
+    public AuthenticationBlockHoundIntegration(Consumer<BlockingOperationError> violations) {
+        this.violations = violations;
+    }
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        builder.allowBlockingCallsInside("ch.qos.logback.core.AsyncAppenderBase", "put")
+                .allowBlockingCallsInside("com.github.benmanes.caffeine.cache.BoundedLocalCache", "performCleanUp")
+                .allowBlockingCallsInside("io.github.resilience4j.core.metrics.FixedSizeSlidingWindowMetrics", "record")
+                .allowBlockingCallsInside("io.github.resilience4j.core.metrics.SlidingTimeWindowMetrics", "record")
+                .blockingMethodCallback(method -> {
+                    BlockingOperationError error = new BlockingOperationError(method);
+                    violations.accept(error);
+                    throw error;
+                });
+    }
+}
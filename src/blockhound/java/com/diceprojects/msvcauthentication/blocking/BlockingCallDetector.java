@@ -0,0 +1,57 @@
+package com.diceprojects.msvcauthentication.blocking;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Extensión de JUnit que instala BlockHound una sola vez por JVM y hace fallar el test durante el cual
+ * algún hilo no bloqueante (event loop de reactor-netty, planificadores {@code parallel} de Reactor)
+ * ejecutó una llamada bloqueante.
+ * <p>
+ * BlockHound lanza un {@link BlockingOperationError} en el hilo infractor, pero ese error puede acabar
+ * absorbido por la cadena reactiva (por ejemplo, convertido en un 401 por {@code onErrorResume}); por eso
+ * cada infracción se registra también aquí y se comprueba al terminar cada test. Las infracciones de tareas
+ * en segundo plano (por ejemplo, la carga del anillo de claves al arrancar el contexto) se atribuyen al
+ * primer test que termina después de producirse.
+ * <p>
+ * Con el perfil {@code blockhound} se registra automáticamente en todos los tests
+ * ({@code junit.jupiter.extensions.autodetection.enabled}).
+ */
+public class BlockingCallDetector implements BeforeAllCallback, AfterEachCallback {
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+    private static final Queue<BlockingOperationError> VIOLATIONS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (INSTALLED.compareAndSet(false, true)) {
+            BlockHound.install(new AuthenticationBlockHoundIntegration(VIOLATIONS::add));
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        List<BlockingOperationError> violations = new ArrayList<>();
+        for (BlockingOperationError violation = VIOLATIONS.poll(); violation != null; violation = VIOLATIONS.poll()) {
+            violations.add(violation);
+        }
+        if (!violations.isEmpty()) {
+            AssertionError failure = new AssertionError("Llamadas bloqueantes en hilos no bloqueantes:\n" + violations.stream()
+                    .map(violation -> "  " + violation.getMessage())
+                    .distinct()
+                    .collect(Collectors.joining("\n")));
+            violations.forEach(failure::addSuppressed);
+            throw failure;
+        }
+    }
+}
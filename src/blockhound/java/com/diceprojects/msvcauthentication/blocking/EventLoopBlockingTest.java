@@ -0,0 +1,142 @@
+package com.diceprojects.msvcauthentication.blocking;
+
+import com.diceprojects.msvcauthentication.security.KeyRing;
+import com.diceprojects.msvcauthentication.security.KeyRingManager;
+import com.diceprojects.msvcauthentication.support.StubAuthorizationServer;
+import com.diceprojects.msvcauthentication.support.StubConfigurationServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Recorre de extremo a extremo la carga y rotación del anillo de claves, el inicio de sesión y la validación
+ * de tokens con BlockHound activo ({@link BlockingCallDetector}): cualquier bloqueo de un hilo del event loop
+ * o de un planificador no bloqueante hace fallar el test, aunque la respuesta HTTP sea la esperada.
+ * msvc-authorization y msvc-configurations se sustituyen por servidores locales; MongoDB no se usa.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
+class EventLoopBlockingTest {
+
+    private static final String PASSWORD = "secret";
+    private static final StubAuthorizationServer AUTHORIZATION = StubAuthorizationServer.start()
+            .withUser("alice", new BCryptPasswordEncoder(4).encode(PASSWORD), "ROLE_ADMIN");
+    private static final StubConfigurationServer CONFIGURATIONS = StubConfigurationServer.start();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private KeyRingManager keyRingManager;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("msvc.authorization.url", AUTHORIZATION::baseUrl);
+        registry.add("msvc.configurations.url", CONFIGURATIONS::baseUrl);
+        registry.add("auth.refresh.enabled", () -> "false");
+        registry.add("auth.denylist.enabled", () -> "false");
+        registry.add("auth.epoch.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        AUTHORIZATION.close();
+        CONFIGURATIONS.close();
+    }
+
+    @Test
+    void bootstrapsAndRotatesKeyRing() {
+        KeyRing ring = keyRingManager.keyRing().block(Duration.ofSeconds(30));
+        assertNotNull(ring);
+        assertNotNull(CONFIGURATIONS.parameter("jwtKeyRing"));
+
+        KeyRing rotated = keyRingManager.rotate().block(Duration.ofSeconds(30));
+        assertNotNull(rotated);
+        assertEquals(ring.kids().size() + 1, rotated.kids().size());
+    }
+
+    @Test
+    void logsIn() {
+        login(PASSWORD)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.username").isEqualTo("alice")
+                .jsonPath("$.token").isNotEmpty();
+    }
+
+    @Test
+    void rejectsInvalidCredentials() {
+        login("wrong").expectStatus().isUnauthorized();
+        webTestClient.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "unknown", "password", PASSWORD))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void validatesToken() {
+        String token = token();
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/auth/validate")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.username").isEqualTo("alice");
+        }
+        webTestClient.post()
+                .uri("/api/auth/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("tokens", List.of(token, "Bearer " + token, "not-a-token")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3);
+    }
+
+    @Test
+    void rejectsInvalidToken() {
+        webTestClient.get()
+                .uri("/api/auth/validate")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private WebTestClient.ResponseSpec login(String password) {
+        return webTestClient.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "alice", "password", password))
+                .exchange();
+    }
+
+    private String token() {
+        JsonNode response = login(PASSWORD)
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(response);
+        return response.get("token").asText();
+    }
+}
@@ -0,0 +1,44 @@
+package com.diceprojects.msvcauthentication.benchmarks;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.AuthResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción y serialización JSON de la respuesta de inicio de sesión.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuthResponseBenchmark {
+
+    @Param({"false", "true"})
+    public boolean withRefreshToken;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Date expiryDate = new Date();
+    private String token;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        token = "eyJraWQiOiJiZW5jaCIsImFsZyI6IkhTNTEyIn0." + "x".repeat(600) + ".c2lnbmF0dXJl";
+        refreshToken = withRefreshToken ? "q2v9Jx3Z0yqXn8m4c7Lr1w5t6u0pK2aF8dG3hS9jB4E" : null;
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new AuthResponse("benchmark.user", token, expiryDate, refreshToken));
+    }
+}
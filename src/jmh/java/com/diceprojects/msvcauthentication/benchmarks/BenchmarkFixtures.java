@@ -0,0 +1,79 @@
+package com.diceprojects.msvcauthentication.benchmarks;
+
+import com.diceprojects.msvcauthentication.clients.AuthorizationClient;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RoleDTO;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.diceprojects.msvcauthentication.security.JwtUtil;
+import com.diceprojects.msvcauthentication.security.KeyRing;
+import com.diceprojects.msvcauthentication.security.KeyRingManager;
+import com.diceprojects.msvcauthentication.security.SigningAlgorithm;
+import com.diceprojects.msvcauthentication.security.TokenDenylist;
+import com.diceprojects.msvcauthentication.security.TokenEpochRegistry;
+import com.diceprojects.msvcauthentication.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Construcción de los componentes que se miden, con los clientes remotos y los registros respaldados
+ * por MongoDB sustituidos por dobles que responden en memoria.
+ */
+final class BenchmarkFixtures {
+
+    private static final long EXPIRATION_MS = 3_600_000;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Crea un usuario con el número de roles indicado.
+     *
+     * @param roles número de roles del usuario.
+     * @return los detalles del usuario.
+     */
+    static UserDetailsDTO user(int roles) {
+        Set<RoleDTO> roleSet = new LinkedHashSet<>();
+        for (int i = 0; i < roles; i++) {
+            roleSet.add(new RoleDTO("role-" + i, "ROLE_" + i, "ACTIVE"));
+        }
+        return new UserDetailsDTO("64f0c2a1b9e4d3a2c1b0a987", "benchmark.user", "$2a$10$unused", "ACTIVE", roleSet);
+    }
+
+    /**
+     * Crea un anillo con una única clave activa del algoritmo indicado.
+     *
+     * @param algorithm el algoritmo de firma.
+     * @return el anillo de claves.
+     */
+    static KeyRing keyRing(SigningAlgorithm algorithm) {
+        return KeyRing.of(algorithm.generate("bench", Instant.now().minusSeconds(1)), EXPIRATION_MS);
+    }
+
+    /**
+     * Crea un {@link JwtUtil} sobre el anillo indicado, sin E/S.
+     *
+     * @param keyRing      el anillo de claves.
+     * @param selfContained indica si los tokens incluyen las claims estructuradas del usuario.
+     * @param cacheEnabled indica si se usa la caché de tokens verificados.
+     * @param user         el usuario que devuelve el cliente de autorización simulado.
+     * @return la utilidad JWT.
+     */
+    static JwtUtil jwtUtil(KeyRing keyRing, boolean selfContained, boolean cacheEnabled, UserDetailsDTO user) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        KeyRingManager keyRingManager = Mockito.mock(KeyRingManager.class);
+        Mockito.when(keyRingManager.keyRing()).thenReturn(Mono.just(keyRing));
+        Mockito.when(keyRingManager.current()).thenReturn(keyRing);
+        AuthorizationClient authorizationClient = Mockito.mock(AuthorizationClient.class);
+        Mockito.when(authorizationClient.getUserByUsername(Mockito.anyString())).thenReturn(Mono.just(user));
+        TokenEpochRegistry tokenEpochRegistry = Mockito.mock(TokenEpochRegistry.class);
+        Mockito.when(tokenEpochRegistry.isSuperseded(Mockito.any())).thenReturn(Mono.just(false));
+        return new JwtUtil(keyRingManager, authorizationClient,
+                new VerifiedTokenCache(cacheEnabled, 10_000, meterRegistry),
+                Mockito.mock(TokenDenylist.class), tokenEpochRegistry,
+                selfContained, 0, 0, 10_000, meterRegistry);
+    }
+}
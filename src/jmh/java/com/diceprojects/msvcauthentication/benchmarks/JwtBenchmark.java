@@ -0,0 +1,79 @@
+package com.diceprojects.msvcauthentication.benchmarks;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.diceprojects.msvcauthentication.security.JwtUtil;
+import com.diceprojects.msvcauthentication.security.KeyRing;
+import com.diceprojects.msvcauthentication.security.SigningAlgorithm;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y verificación de tokens para cada algoritmo de firma (HMAC de 512 bits, P-256 y Ed25519)
+ * y para tokens mínimos o autocontenidos con distinto número de roles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtBenchmark {
+
+    @Param({"HS512", "ES256", "EdDSA"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean selfContained;
+
+    @Param({"1", "10"})
+    public int roles;
+
+    private UserDetailsDTO user;
+    private JwtUtil jwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user(roles);
+        KeyRing keyRing = BenchmarkFixtures.keyRing(SigningAlgorithm.valueOf(algorithm));
+        jwtUtil = BenchmarkFixtures.jwtUtil(keyRing, selfContained, false, user);
+        cachedJwtUtil = BenchmarkFixtures.jwtUtil(keyRing, selfContained, true, user);
+        token = jwtUtil.generateToken(user).block();
+        cachedJwtUtil.validateToken(token).block();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user).block();
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token).block();
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return cachedJwtUtil.validateToken(token).block();
+    }
+
+    @Benchmark
+    public Claims getClaimsFromToken() {
+        return jwtUtil.getClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public UserDetailsDTO getUserFromToken() {
+        return cachedJwtUtil.verifyToken(token)
+                .flatMap(claims -> cachedJwtUtil.getUserFromClaims(claims, name -> Mono.just(user)))
+                .block();
+    }
+}
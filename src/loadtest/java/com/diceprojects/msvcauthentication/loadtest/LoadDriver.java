@@ -0,0 +1,114 @@
+package com.diceprojects.msvcauthentication.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Generador de carga de modelo abierto: lanza solicitudes a una tasa de llegada fija, independientemente
+ * de lo que tarden las anteriores. La latencia de cada solicitud se mide desde el instante en que debía
+ * lanzarse, no desde que se lanzó, de modo que una cola de espera en el cliente cuenta como latencia
+ * (sin omisión coordinada). Las solicitudes del calentamiento no se contabilizan.
+ */
+final class LoadDriver {
+
+    /**
+     * Resultado de un escenario.
+     *
+     * @param scenario   nombre del escenario.
+     * @param targetRate tasa de llegada objetivo (solicitudes por segundo).
+     * @param sent       solicitudes medidas.
+     * @param ok         respuestas 2xx.
+     * @param errors     respuestas no 2xx, errores de conexión y tiempos de espera agotados.
+     * @param dropped    solicitudes descartadas porque la cola del cliente estaba llena.
+     * @param throughput respuestas 2xx por segundo durante la medición.
+     * @param latency    percentiles de latencia en milisegundos.
+     */
+    record Result(String scenario, double targetRate, long sent, long ok, long errors, long dropped,
+                  double throughput, Map<String, Double> latency) {
+    }
+
+    private static final Duration TICK = Duration.ofMillis(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private LoadDriver() {
+    }
+
+    /**
+     * Ejecuta un escenario.
+     *
+     * @param scenario       nombre del escenario.
+     * @param rate           tasa de llegada (solicitudes por segundo).
+     * @param warmup         duración del calentamiento.
+     * @param duration       duración de la medición.
+     * @param maxConcurrency número máximo de solicitudes en curso; el resto espera en cola.
+     * @param maxQueued      número máximo de solicitudes en cola antes de descartar.
+     * @param request        proveedor de solicitudes; cada una emite el código de estado HTTP.
+     * @return el resultado del escenario.
+     */
+    static Result run(String scenario, double rate, Duration warmup, Duration duration, int maxConcurrency,
+                      int maxQueued, Supplier<Mono<Integer>> request) {
+        Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        AtomicLong sent = new AtomicLong();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double periodNanos = 1_000_000_000d / rate;
+        AtomicLong scheduled = new AtomicLong();
+
+        Flux.interval(TICK)
+                .takeUntil(tick -> System.nanoTime() >= end)
+                .flatMapIterable(tick -> {
+                    long due = (long) ((Math.min(System.nanoTime(), end) - start) / periodNanos);
+                    long from = scheduled.get();
+                    if (due <= from) {
+                        return List.<Long>of();
+                    }
+                    scheduled.set(due);
+                    return LongStream.range(from, due)
+                            .mapToObj(i -> start + (long) (i * periodNanos))
+                            .toList();
+                })
+                .onBackpressureBuffer(maxQueued, intended -> {
+                    if (intended >= measureFrom) {
+                        dropped.incrementAndGet();
+                    }
+                }, BufferOverflowStrategy.DROP_LATEST)
+                .flatMap(intended -> request.get()
+                        .timeout(REQUEST_TIMEOUT)
+                        .onErrorReturn(-1)
+                        .doOnNext(status -> {
+                            if (intended < measureFrom) {
+                                return;
+                            }
+                            sent.incrementAndGet();
+                            histogram.recordValue(Math.max(0, (System.nanoTime() - intended) / 1000));
+                            (status >= 200 && status < 300 ? ok : errors).incrementAndGet();
+                        }), maxConcurrency)
+                .blockLast(warmup.plus(duration).plus(REQUEST_TIMEOUT).plusSeconds(5));
+
+        Map<String, Double> latency = new LinkedHashMap<>();
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            latency.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000d);
+        }
+        latency.put("max", histogram.getMaxValue() / 1000d);
+        latency.put("mean", histogram.getMean() / 1000d);
+        return new Result(scenario, rate, sent.get(), ok.get(), errors.get(), dropped.get(),
+                ok.get() / (duration.toNanos() / 1e9), latency);
+    }
+}
@@ -0,0 +1,191 @@
+package com.diceprojects.msvcauthentication.loadtest;
+
+import com.diceprojects.msvcauthentication.MsvcAuthenticationApplication;
+import com.diceprojects.msvcauthentication.security.KeyRingManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de carga de extremo a extremo en una sola máquina y sin red: arranca los sustitutos de
+ * msvc-authorization y msvc-configurations ({@link StubBackends}), arranca el servicio apuntando a ellos
+ * en un puerto efímero y mide {@code /api/auth/login} y {@code /api/auth/validate} a tasas de llegada fijas
+ * ({@link LoadDriver}). MongoDB no se usa: los refresh tokens, la lista de tokens revocados y las epochs se desactivan.
+ * <p>
+ * Los ajustes se pasan como argumentos {@code clave=valor} (véase {@link #DEFAULTS}); el resultado se imprime
+ * y se guarda en JSON.
+ */
+public final class LoadTestMain {
+
+    /**
+     * Ajustes por defecto.
+     */
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("scenarios", "login,validate"),
+            Map.entry("rate", "200"),
+            Map.entry("login.rate", ""),
+            Map.entry("validate.rate", ""),
+            Map.entry("warmupSeconds", "10"),
+            Map.entry("durationSeconds", "30"),
+            Map.entry("maxConcurrency", "512"),
+            Map.entry("maxQueued", "100000"),
+            Map.entry("users", "100"),
+            Map.entry("bcryptStrength", "10"),
+            Map.entry("authorization.latencyMs", "5"),
+            Map.entry("authorization.jitterMs", "0"),
+            Map.entry("authorization.errorRate", "0"),
+            Map.entry("configurations.latencyMs", "5"),
+            Map.entry("configurations.jitterMs", "0"),
+            Map.entry("configurations.errorRate", "0"),
+            Map.entry("profile", "dev"),
+            Map.entry("result", "target/loadtest-result.json"));
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private LoadTestMain() {
+    }
+
+    /**
+     * Nombre del usuario de prueba con el índice indicado.
+     *
+     * @param index el índice del usuario.
+     * @return el nombre de usuario.
+     */
+    static String username(int index) {
+        return "loadtest" + index;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        int users = Integer.parseInt(settings.get("users"));
+        String passwordHash = new BCryptPasswordEncoder(Integer.parseInt(settings.get("bcryptStrength"))).encode(PASSWORD);
+
+        List<LoadDriver.Result> results = new ArrayList<>();
+        try (StubBackends stubs = StubBackends.start(objectMapper, users, passwordHash,
+                faults(settings, "authorization"), faults(settings, "configurations"));
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(MsvcAuthenticationApplication.class)
+                     .run("--spring.profiles.active=" + settings.get("profile"),
+                             "--server.port=0",
+                             "--msvc.authorization.url=" + stubs.authorizationUrl(),
+                             "--msvc.configurations.url=" + stubs.configurationsUrl(),
+                             "--auth.refresh.enabled=false",
+                             "--auth.denylist.enabled=false",
+                             "--auth.epoch.enabled=false",
+                             "--spring.devtools.restart.enabled=false",
+                             "--logging.level.root=WARN")) {
+
+            app.getBean(KeyRingManager.class).keyRing().block(Duration.ofSeconds(60));
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            int maxConcurrency = Integer.parseInt(settings.get("maxConcurrency"));
+            ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                    .maxConnections(maxConcurrency)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            HttpClient client = HttpClient.create(connections).baseUrl("http://127.0.0.1:" + port);
+
+            List<String> tokens = Flux.range(0, users)
+                    .flatMap(i -> login(client, username(i))
+                            .map(body -> readToken(objectMapper, body)), 8)
+                    .collectList()
+                    .block(Duration.ofMinutes(2));
+            AtomicInteger next = new AtomicInteger();
+
+            for (String scenario : settings.get("scenarios").split(",")) {
+                double rate = Double.parseDouble(settings.get(scenario + ".rate").isBlank()
+                        ? settings.get("rate") : settings.get(scenario + ".rate"));
+                LoadDriver.Result result = LoadDriver.run(scenario, rate,
+                        Duration.ofSeconds(Long.parseLong(settings.get("warmupSeconds"))),
+                        Duration.ofSeconds(Long.parseLong(settings.get("durationSeconds"))),
+                        maxConcurrency, Integer.parseInt(settings.get("maxQueued")),
+                        switch (scenario) {
+                            case "login" -> () -> status(client
+                                    .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                                    .post()
+                                    .uri("/api/auth/login")
+                                    .send(ByteBufFlux.fromString(Mono.just(loginBody(username(Math.floorMod(next.getAndIncrement(), users)))))));
+                            case "validate" -> () -> status(client
+                                    .headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION,
+                                            "Bearer " + tokens.get(Math.floorMod(next.getAndIncrement(), tokens.size()))))
+                                    .get()
+                                    .uri("/api/auth/validate"));
+                            default -> throw new IllegalArgumentException("Escenario desconocido: " + scenario);
+                        });
+                results.add(result);
+                print(result);
+            }
+            connections.disposeLater().block();
+        }
+
+        File output = new File(settings.get("result"));
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(output, Map.of("settings", settings, "results", results));
+        System.out.println("Resultado guardado en " + output.getAbsolutePath());
+        System.exit(0);
+    }
+
+    private static StubBackends.Faults faults(Map<String, String> settings, String backend) {
+        return new StubBackends.Faults(Long.parseLong(settings.get(backend + ".latencyMs")),
+                Long.parseLong(settings.get(backend + ".jitterMs")),
+                Double.parseDouble(settings.get(backend + ".errorRate")));
+    }
+
+    private static Mono<String> login(HttpClient client, String username) {
+        return client.headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .post()
+                .uri("/api/auth/login")
+                .send(ByteBufFlux.fromString(Mono.just(loginBody(username))))
+                .responseSingle((response, body) -> response.status().code() == 200
+                        ? body.asString()
+                        : Mono.error(new IllegalStateException("Inicio de sesión de " + username + " rechazado: " + response.status())));
+    }
+
+    private static Mono<Integer> status(HttpClient.ResponseReceiver<?> request) {
+        return request.responseSingle((response, body) -> body.then(Mono.just(response.status().code())));
+    }
+
+    private static String loginBody(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String readToken(ObjectMapper objectMapper, String body) {
+        try {
+            JsonNode response = objectMapper.readTree(body);
+            return response.get("token").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException("Respuesta de inicio de sesión inválida: " + body, e);
+        }
+    }
+
+    private static void print(LoadDriver.Result result) {
+        System.out.printf("%-10s objetivo %8.1f/s  medido %8.1f/s  enviadas %8d  ok %8d  errores %6d  descartadas %6d  latencia(ms) %s%n",
+                result.scenario(), result.targetRate(), result.throughput(), result.sent(), result.ok(),
+                result.errors(), result.dropped(), result.latency());
+    }
+}
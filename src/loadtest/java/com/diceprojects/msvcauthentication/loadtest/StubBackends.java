@@ -0,0 +1,175 @@
+package com.diceprojects.msvcauthentication.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Sustitutos locales de msvc-authorization y msvc-configurations para las pruebas de carga.
+ * Cada uno es un servidor HTTP de Reactor Netty en un puerto efímero de la interfaz local que atiende
+ * únicamente los endpoints que usa este servicio, con latencia y errores inyectables.
+ * <ul>
+ *     <li>msvc-authorization: {@code GET /api/user/{username}} y {@code PUT /api/user/updateToken/{userId}}.</li>
+ *     <li>msvc-configurations: {@code /api/parameters/*}, con los parámetros guardados en memoria.</li>
+ * </ul>
+ */
+final class StubBackends implements AutoCloseable {
+
+    /**
+     * Fallos inyectados en cada respuesta de un sustituto.
+     *
+     * @param latencyMs latencia fija (en milisegundos) añadida a cada respuesta.
+     * @param jitterMs  latencia aleatoria adicional máxima (en milisegundos).
+     * @param errorRate proporción de respuestas que devuelven un 503 (entre 0 y 1).
+     */
+    record Faults(long latencyMs, long jitterMs, double errorRate) {
+
+        private Mono<Boolean> apply() {
+            long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+            boolean fail = errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+            return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).thenReturn(fail) : Mono.just(fail);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> users = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> parameters = new ConcurrentHashMap<>();
+    private final DisposableServer authorization;
+    private final DisposableServer configurations;
+
+    private StubBackends(ObjectMapper objectMapper, int userCount, String passwordHash,
+                         Faults authorizationFaults, Faults configurationFaults) {
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < userCount; i++) {
+            String username = LoadTestMain.username(i);
+            Map<String, Object> role = Map.of("id", "role-user", "role", "ROLE_USER", "status", "ACTIVE");
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("id", "id-" + username);
+            user.put("username", username);
+            user.put("password", passwordHash);
+            user.put("status", "ACTIVE");
+            user.put("roles", List.of(role));
+            users.put(username, json(user));
+        }
+        this.authorization = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/user/{username}", (request, response) -> faulty(authorizationFaults, response,
+                                () -> {
+                                    byte[] user = users.get(request.param("username"));
+                                    return user != null ? sendJson(response, user) : response.status(HttpResponseStatus.NOT_FOUND).send();
+                                }))
+                        .put("/api/user/updateToken/{userId}", (request, response) -> faulty(authorizationFaults, response,
+                                () -> request.receive().then(sendJson(response, json(Map.of("id", request.param("userId"))))))))
+                .bindNow();
+        this.configurations = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/parameters/ListAll", (request, response) -> faulty(configurationFaults, response,
+                                () -> sendJson(response, json(new ArrayList<>(parameters.values())))))
+                        .get("/api/parameters/getParameterName/{name}", (request, response) -> faulty(configurationFaults, response,
+                                () -> {
+                                    Map<String, Object> parameter = parameters.get(request.param("name"));
+                                    return parameter != null ? sendJson(response, json(parameter)) : response.status(HttpResponseStatus.NOT_FOUND).send();
+                                }))
+                        .post("/api/parameters", (request, response) -> faulty(configurationFaults, response,
+                                () -> request.receive().aggregate().asString().flatMap(body -> sendJson(response, json(saveParameter(body))))))
+                        .delete("/api/parameters/delete/{id}", (request, response) -> faulty(configurationFaults, response,
+                                () -> {
+                                    parameters.values().removeIf(parameter -> request.param("id").equals(parameter.get("id")));
+                                    return response.status(HttpResponseStatus.NO_CONTENT).send();
+                                })))
+                .bindNow();
+    }
+
+    /**
+     * Arranca los dos sustitutos.
+     *
+     * @param objectMapper          el mapeador JSON.
+     * @param userCount             número de usuarios de prueba ({@link LoadTestMain#username(int)}).
+     * @param passwordHash          el hash BCrypt de la contraseña de todos los usuarios.
+     * @param authorizationFaults   fallos inyectados en msvc-authorization.
+     * @param configurationFaults   fallos inyectados en msvc-configurations.
+     * @return los sustitutos en marcha.
+     */
+    static StubBackends start(ObjectMapper objectMapper, int userCount, String passwordHash,
+                              Faults authorizationFaults, Faults configurationFaults) {
+        return new StubBackends(objectMapper, userCount, passwordHash, authorizationFaults, configurationFaults);
+    }
+
+    /**
+     * Obtiene la URL base del sustituto de msvc-authorization.
+     *
+     * @return la URL base, incluido el prefijo {@code /api}.
+     */
+    String authorizationUrl() {
+        return "http://127.0.0.1:" + authorization.port() + "/api";
+    }
+
+    /**
+     * Obtiene la URL base del sustituto de msvc-configurations.
+     *
+     * @return la URL base, incluido el prefijo {@code /api}.
+     */
+    String configurationsUrl() {
+        return "http://127.0.0.1:" + configurations.port() + "/api";
+    }
+
+    @Override
+    public void close() {
+        authorization.disposeNow();
+        configurations.disposeNow();
+    }
+
+    private Map<String, Object> saveParameter(String body) {
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> parameter = objectMapper.readValue(body, Map.class);
+            Map<String, Object> previous = parameters.get(String.valueOf(parameter.get("parameterName")));
+            parameter.put("id", previous != null ? previous.get("id") : UUID.randomUUID().toString());
+            parameters.put(String.valueOf(parameter.get("parameterName")), parameter);
+            return parameter;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Parámetro inválido", e);
+        }
+    }
+
+    private static Publisher<Void> faulty(Faults faults, HttpServerResponse response,
+                                          Supplier<Publisher<Void>> handler) {
+        return faults.apply().flatMap(fail -> fail
+                ? response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then()
+                : Mono.from(handler.get()));
+    }
+
+    private static Mono<Void> sendJson(HttpServerResponse response, byte[] body) {
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendByteArray(Mono.just(body))
+                .then();
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,14 +1,11 @@
 package com.diceprojects.msvcauthentication.clients;
 
+import com.diceprojects.msvcauthentication.jfr.DownstreamCallEvent;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
-import io.netty.handler.logging.LogLevel;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
-import reactor.netty.transport.logging.AdvancedByteBufFormat;
 
 /**
  * Cliente para comunicarse con el microservicio de msvc-authorization.
@@ -17,34 +14,62 @@ import reactor.netty.transport.logging.AdvancedByteBufFormat;
 public class AuthorizationClient {
 
     private final WebClient webClient;
+    private final UserDetailsCache userDetailsCache;
+    private final ResiliencePolicy resiliencePolicy;
 
     /**
      * Constructor de AuthorizationClient.
      *
      * @param authorizationServiceUrl la URL base del servicio de autorización, inyectada desde el archivo de configuración.
+     * @param responseTimeoutMs       tiempo máximo (en milisegundos) de espera de cada respuesta del servicio de autorización.
+     * @param webClientBuilder        builder de {@link WebClient} sobre el pool de conexiones compartido.
+     * @param userDetailsCache        caché opcional de detalles de usuario.
+     * @param resiliencePolicy        política de resiliencia aplicada a las lecturas.
      */
-    public AuthorizationClient(@Value("${msvc.authorization.url}") String authorizationServiceUrl) {
-        this.webClient = WebClient.builder()
+    public AuthorizationClient(@Value("${msvc.authorization.url}") String authorizationServiceUrl,
+                               @Value("${msvc.authorization.responseTimeoutMs:${msvc.http.responseTimeoutMs:5000}}") long responseTimeoutMs,
+                               WebClient.Builder webClientBuilder, UserDetailsCache userDetailsCache,
+                               ResiliencePolicy resiliencePolicy) {
+        this.userDetailsCache = userDetailsCache;
+        this.resiliencePolicy = resiliencePolicy;
+        this.webClient = webClientBuilder
                 .baseUrl(authorizationServiceUrl)
-                .clientConnector(new ReactorClientHttpConnector(
-                        HttpClient.create()
-                                .compress(true)
-                                .wiretap("reactor.netty.client.HttpClient", LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL)
-                ))
+                .defaultRequest(WebClientConfig.responseTimeout(responseTimeoutMs))
+                .filter(DownstreamCallEvent.filter("msvc-authorization"))
                 .build();
     }
 
     /**
-     * Obtiene los detalles de un usuario por su nombre de usuario desde el microservicio de msvc-authorization.
+     * Obtiene los detalles de un usuario por su nombre de usuario, usando la caché de usuarios si está habilitada.
      *
      * @param username el nombre de usuario.
      * @return un {@link Mono} que emite los detalles del usuario encontrado.
      */
     public Mono<UserDetailsDTO> getUserByUsername(String username) {
-        return webClient.get()
-                .uri("/user/{username}", username)
-                .retrieve()
-                .bodyToMono(UserDetailsDTO.class)
+        return userDetailsCache.get(username, this::fetchUserByUsername);
+    }
+
+    /**
+     * Descarta de la caché los detalles de un usuario para que la próxima consulta vaya al servicio remoto.
+     *
+     * @param username el nombre de usuario.
+     */
+    public void evictUser(String username) {
+        userDetailsCache.invalidate(username);
+    }
+
+    /**
+     * Obtiene los detalles de un usuario por su nombre de usuario desde el microservicio de msvc-authorization,
+     * aplicando la política de resiliencia (circuit breaker, reintentos y hedging).
+     *
+     * @param username el nombre de usuario.
+     * @return un {@link Mono} que emite los detalles del usuario encontrado.
+     */
+    private Mono<UserDetailsDTO> fetchUserByUsername(String username) {
+        return resiliencePolicy.read(() -> webClient.get()
+                        .uri("/user/{username}", username)
+                        .retrieve()
+                        .bodyToMono(UserDetailsDTO.class))
                 .onErrorResume(e -> Mono.error(new RuntimeException("Error retrieving user details", e)));
     }
 
@@ -58,10 +83,7 @@ public class AuthorizationClient {
      */
     public Mono<UserDetailsDTO> updateUserToken(String userId, String token) {
         return webClient.put()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/user/updateToken/{userId}")
-                        .queryParam("token", token)
-                        .build(userId))
+                .uri("/user/updateToken/{userId}?token={token}", userId, token)
                 .retrieve()
                 .bodyToMono(UserDetailsDTO.class);
     }
@@ -1,15 +1,12 @@
 package com.diceprojects.msvcauthentication.clients;
 
+import com.diceprojects.msvcauthentication.jfr.DownstreamCallEvent;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.ParameterDTO;
-import io.netty.handler.logging.LogLevel;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
-import reactor.netty.transport.logging.AdvancedByteBufFormat;
 
 /**
  * Cliente para comunicarse con el microservicio de msvc-configurations.
@@ -23,15 +20,16 @@ public class ConfigurationClient {
      * Constructor de ConfigurationClient.
      *
      * @param configurationsServiceUrl la URL base del servicio de configuraciones, inyectada desde el archivo de configuración.
+     * @param responseTimeoutMs        tiempo máximo (en milisegundos) de espera de cada respuesta del servicio de configuraciones.
+     * @param webClientBuilder         builder de {@link WebClient} sobre el pool de conexiones compartido.
      */
-    public ConfigurationClient(@Value("${msvc.configurations.url}") String configurationsServiceUrl) {
-        this.webClient = WebClient.builder()
+    public ConfigurationClient(@Value("${msvc.configurations.url}") String configurationsServiceUrl,
+                               @Value("${msvc.configurations.responseTimeoutMs:${msvc.http.responseTimeoutMs:5000}}") long responseTimeoutMs,
+                               WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder
                 .baseUrl(configurationsServiceUrl)
-                .clientConnector(new ReactorClientHttpConnector(
-                        HttpClient.create()
-                                .compress(true)
-                                .wiretap("reactor.netty.client.HttpClient", LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL)
-                ))
+                .defaultRequest(WebClientConfig.responseTimeout(responseTimeoutMs))
+                .filter(DownstreamCallEvent.filter("msvc-configurations"))
                 .build();
     }
 
@@ -0,0 +1,74 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registro circular de las últimas latencias observadas de un servicio remoto.
+ * Calcula un percentil a partir de la ventana de muestras y lo mantiene en memoria durante
+ * un segundo, para que consultarlo en cada llamada no implique ordenar la ventana.
+ */
+public class LatencyTracker {
+
+    private static final long RECOMPUTE_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+
+    private volatile long cachedPercentileNanos = -1;
+    private volatile long computedAt;
+
+    /**
+     * Constructor de LatencyTracker.
+     *
+     * @param windowSize número de muestras que se conservan.
+     * @param percentile percentil a calcular, entre 0 y 1.
+     */
+    public LatencyTracker(int windowSize, double percentile) {
+        this.samples = new AtomicLongArray(windowSize);
+        this.percentile = percentile;
+    }
+
+    /**
+     * Registra la latencia de una llamada completada.
+     *
+     * @param nanos la latencia en nanosegundos.
+     */
+    public void record(long nanos) {
+        samples.set((int) (count.getAndIncrement() % samples.length()), nanos);
+    }
+
+    /**
+     * Obtiene el número de muestras registradas, limitado al tamaño de la ventana.
+     *
+     * @return el número de muestras disponibles.
+     */
+    public int sampleCount() {
+        return (int) Math.min(count.get(), samples.length());
+    }
+
+    /**
+     * Obtiene el percentil configurado de las latencias de la ventana.
+     *
+     * @return el percentil en nanosegundos, o {@code -1} si no hay muestras.
+     */
+    public long percentileNanos() {
+        long now = System.nanoTime();
+        if (cachedPercentileNanos < 0 || now - computedAt > RECOMPUTE_INTERVAL_NANOS) {
+            int size = sampleCount();
+            if (size == 0) {
+                return -1;
+            }
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = samples.get(i);
+            }
+            Arrays.sort(copy);
+            cachedPercentileNanos = copy[Math.max(0, Math.min(size - 1, (int) Math.ceil(percentile * size) - 1))];
+            computedAt = now;
+        }
+        return cachedPercentileNanos;
+    }
+}
@@ -0,0 +1,26 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las políticas de resiliencia de los clientes hacia otros microservicios.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    /**
+     * Define la política de resiliencia de las lecturas hacia msvc-authorization.
+     *
+     * @param properties    propiedades de resiliencia ({@code msvc.authorization.resilience.*}).
+     * @param meterRegistry registro de métricas.
+     * @return la {@link ResiliencePolicy} del servicio de autorización.
+     */
+    @Bean
+    public ResiliencePolicy authorizationResiliencePolicy(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new ResiliencePolicy("msvc-authorization", properties, meterRegistry);
+    }
+}
@@ -0,0 +1,207 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Política de resiliencia para las lecturas hacia un servicio remoto.
+ * Combina, de dentro hacia fuera:
+ * <ol>
+ *     <li>una solicitud cubierta (hedging) opcional: si la primera sigue pendiente al alcanzar el percentil
+ *         de latencia configurado, se envía una segunda, con cargo al {@link RetryBudget}, y se usa la primera
+ *         respuesta;</li>
+ *     <li>un circuit breaker sensible a fallos y a llamadas lentas;</li>
+ *     <li>reintentos con espera exponencial aleatorizada, limitados por un {@link RetryBudget}.</li>
+ * </ol>
+ * Solo se reintentan y computan como fallo los errores transitorios (errores de conexión,
+ * tiempos de espera y respuestas 5xx); un 4xx como "usuario no encontrado" no abre el circuito.
+ */
+public class ResiliencePolicy {
+
+    private static final int LATENCY_WINDOW = 1024;
+
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final LatencyTracker latencyTracker;
+    private final ResilienceProperties.Retry retryProperties;
+    private final ResilienceProperties.Hedge hedgeProperties;
+
+    private final Counter retriesCounter;
+    private final Counter retryBudgetExhaustedCounter;
+    private final Counter hedgesSentCounter;
+    private final Counter hedgesWonCounter;
+    private final Counter hedgeBudgetExhaustedCounter;
+
+    /**
+     * Constructor de ResiliencePolicy.
+     *
+     * @param name          nombre del servicio remoto, usado en las métricas.
+     * @param properties    propiedades de resiliencia.
+     * @param meterRegistry registro de métricas.
+     */
+    public ResiliencePolicy(String name, ResilienceProperties properties, MeterRegistry meterRegistry) {
+        ResilienceProperties.Breaker breaker = properties.getBreaker();
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(breaker.getSlowCallDurationMs()))
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(Duration.ofMillis(breaker.getWaitDurationInOpenStateMs()))
+                .permittedNumberOfCallsInHalfOpenState(breaker.getPermittedCallsInHalfOpenState())
+                .recordException(ResiliencePolicy::isTransient)
+                .build();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+
+        this.retryProperties = properties.getRetry();
+        this.hedgeProperties = properties.getHedge();
+        this.retryBudget = new RetryBudget(retryProperties.getBudgetRatio(), retryProperties.getBudgetMaxRetries());
+        this.latencyTracker = new LatencyTracker(LATENCY_WINDOW, hedgeProperties.getPercentile());
+
+        Gauge.builder("downstream.retry.budget", retryBudget, RetryBudget::available)
+                .tag("client", name)
+                .description("Reintentos disponibles en el presupuesto")
+                .register(meterRegistry);
+        this.retriesCounter = Counter.builder("downstream.retries")
+                .tag("client", name).tag("result", "attempted")
+                .register(meterRegistry);
+        this.retryBudgetExhaustedCounter = Counter.builder("downstream.retries")
+                .tag("client", name).tag("result", "budget_exhausted")
+                .register(meterRegistry);
+        this.hedgesSentCounter = Counter.builder("downstream.hedges")
+                .tag("client", name).tag("result", "sent")
+                .register(meterRegistry);
+        this.hedgesWonCounter = Counter.builder("downstream.hedges")
+                .tag("client", name).tag("result", "won")
+                .register(meterRegistry);
+        this.hedgeBudgetExhaustedCounter = Counter.builder("downstream.hedges")
+                .tag("client", name).tag("result", "budget_exhausted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una lectura idempotente aplicando hedging, circuit breaker y reintentos.
+     *
+     * @param call proveedor de la llamada remota; se invoca una vez por intento.
+     * @param <T>  el tipo del resultado.
+     * @return un {@link Mono} con el resultado de la lectura.
+     */
+    public <T> Mono<T> read(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+                    retryBudget.onRequest();
+                    return hedged(call).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+                })
+                .retryWhen(Retry.backoff(retryProperties.getMaxRetries(), Duration.ofMillis(retryProperties.getBackoffMs()))
+                        .maxBackoff(Duration.ofMillis(retryProperties.getMaxBackoffMs()))
+                        .jitter(retryProperties.getJitter())
+                        .filter(this::shouldRetry)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    /**
+     * Obtiene el circuit breaker de la política (útil para supervisión y pruebas).
+     *
+     * @return el {@link CircuitBreaker}.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Envía la llamada y, si la cobertura está habilitada y hay suficientes muestras,
+     * una segunda llamada cuando la primera sigue pendiente al superar el percentil de latencia.
+     * Si la primera falla o termina vacía antes, su resultado se propaga de inmediato y no se envía la segunda;
+     * tampoco se envía si el presupuesto de reintentos está agotado.
+     */
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+        Mono<T> primary = timed(call.get());
+        if (!hedgeProperties.isEnabled() || latencyTracker.sampleCount() < hedgeProperties.getMinSamples()) {
+            return primary;
+        }
+        Duration delay = Duration.ofNanos(Math.max(latencyTracker.percentileNanos(),
+                Duration.ofMillis(hedgeProperties.getMinDelayMs()).toNanos()));
+        return primary.publish(pending -> {
+            Mono<T> secondary = Mono.delay(delay)
+                    .takeUntilOther(pending.materialize())
+                    .flatMap(tick -> {
+                        if (!retryBudget.tryAcquire()) {
+                            hedgeBudgetExhaustedCounter.increment();
+                            return Mono.empty();
+                        }
+                        hedgesSentCounter.increment();
+                        return timed(call.get()).doOnNext(value -> hedgesWonCounter.increment());
+                    });
+            return Mono.firstWithValue(pending, secondary)
+                    .onErrorResume(NoSuchElementException.class, e -> firstFailure(e)
+                            .map(Mono::<T>error)
+                            .orElseGet(Mono::empty));
+        });
+    }
+
+    /**
+     * Obtiene el primer error real de una carrera en la que ninguna llamada emitió un valor,
+     * descartando las que solo terminaron vacías.
+     */
+    private static Optional<Throwable> firstFailure(NoSuchElementException e) {
+        return Arrays.stream(e.getSuppressed())
+                .filter(failure -> !(failure instanceof NoSuchElementException))
+                .findFirst();
+    }
+
+    /**
+     * Registra la latencia de las llamadas completadas con éxito.
+     */
+    private <T> Mono<T> timed(Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doOnSuccess(value -> latencyTracker.record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Decide si un error debe reintentarse: debe ser transitorio y quedar saldo en el presupuesto.
+     */
+    private boolean shouldRetry(Throwable error) {
+        if (!isTransient(error)) {
+            return false;
+        }
+        if (!retryBudget.tryAcquire()) {
+            retryBudgetExhaustedCounter.increment();
+            return false;
+        }
+        retriesCounter.increment();
+        return true;
+    }
+
+    /**
+     * Indica si un error es transitorio: errores de conexión o tiempo de espera y respuestas 5xx.
+     *
+     * @param error el error producido por la llamada remota.
+     * @return {@code true} si el error es transitorio.
+     */
+    public static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
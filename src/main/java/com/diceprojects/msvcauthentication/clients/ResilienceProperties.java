@@ -0,0 +1,129 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades de resiliencia para las lecturas hacia msvc-authorization
+ * (prefijo {@code msvc.authorization.resilience}).
+ * Agrupa la configuración del circuit breaker, del presupuesto de reintentos y de las solicitudes cubiertas (hedging).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "msvc.authorization.resilience")
+public class ResilienceProperties {
+
+    private Breaker breaker = new Breaker();
+    private Retry retry = new Retry();
+    private Hedge hedge = new Hedge();
+
+    /**
+     * Configuración del circuit breaker sensible a la latencia.
+     */
+    @Getter
+    @Setter
+    public static class Breaker {
+
+        /**
+         * Porcentaje de llamadas fallidas a partir del cual se abre el circuito.
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Porcentaje de llamadas lentas a partir del cual se abre el circuito.
+         */
+        private float slowCallRateThreshold = 80;
+
+        /**
+         * Duración (en milisegundos) a partir de la cual una llamada se considera lenta.
+         */
+        private long slowCallDurationMs = 1000;
+
+        /**
+         * Número de llamadas de la ventana deslizante.
+         */
+        private int slidingWindowSize = 50;
+
+        /**
+         * Número mínimo de llamadas antes de calcular las tasas de fallo y lentitud.
+         */
+        private int minimumNumberOfCalls = 20;
+
+        /**
+         * Tiempo (en milisegundos) que el circuito permanece abierto antes de pasar a semiabierto.
+         */
+        private long waitDurationInOpenStateMs = 5000;
+
+        /**
+         * Número de llamadas de prueba permitidas en estado semiabierto.
+         */
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    /**
+     * Configuración de los reintentos con espera exponencial y presupuesto.
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Número máximo de reintentos por llamada.
+         */
+        private int maxRetries = 2;
+
+        /**
+         * Espera inicial (en milisegundos) entre reintentos.
+         */
+        private long backoffMs = 50;
+
+        /**
+         * Espera máxima (en milisegundos) entre reintentos.
+         */
+        private long maxBackoffMs = 500;
+
+        /**
+         * Factor de aleatoriedad (jitter) aplicado a la espera, entre 0 y 1.
+         */
+        private double jitter = 0.5;
+
+        /**
+         * Reintentos que se añaden al presupuesto por cada llamada (0.2 = un reintento cada cinco llamadas).
+         */
+        private double budgetRatio = 0.2;
+
+        /**
+         * Saldo máximo (e inicial) del presupuesto de reintentos.
+         */
+        private int budgetMaxRetries = 10;
+    }
+
+    /**
+     * Configuración de las solicitudes cubiertas para lecturas idempotentes.
+     */
+    @Getter
+    @Setter
+    public static class Hedge {
+
+        /**
+         * Indica si se envía una segunda solicitud cuando la primera supera el percentil de latencia.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Percentil de latencia observada tras el cual se envía la segunda solicitud.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Espera mínima (en milisegundos) antes de enviar la segunda solicitud.
+         */
+        private long minDelayMs = 10;
+
+        /**
+         * Número mínimo de muestras de latencia antes de empezar a cubrir solicitudes.
+         */
+        private int minSamples = 20;
+    }
+}
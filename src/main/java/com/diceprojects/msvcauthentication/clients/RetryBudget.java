@@ -0,0 +1,62 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto de reintentos basado en un cubo de fichas.
+ * Cada llamada deposita una fracción de reintento y cada reintento consume uno entero,
+ * de modo que, cuando el servicio remoto falla de forma generalizada, los reintentos quedan
+ * limitados a una proporción de las llamadas en lugar de multiplicar la carga.
+ */
+public class RetryBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * Constructor de RetryBudget.
+     *
+     * @param ratio      reintentos que se añaden al presupuesto por cada llamada.
+     * @param maxRetries saldo máximo (e inicial) de reintentos.
+     */
+    public RetryBudget(double ratio, int maxRetries) {
+        this.deposit = Math.round(ratio * TOKEN);
+        this.maxBalance = maxRetries * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Registra una nueva llamada, añadiendo su fracción al presupuesto.
+     */
+    public void onRequest() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(maxBalance, current + amount));
+    }
+
+    /**
+     * Intenta consumir un reintento del presupuesto.
+     *
+     * @return {@code true} si hay saldo suficiente y el reintento está permitido.
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /**
+     * Obtiene el número de reintentos disponibles.
+     *
+     * @return el saldo actual del presupuesto.
+     */
+    public double available() {
+        return (double) balance.get() / TOKEN;
+    }
+}
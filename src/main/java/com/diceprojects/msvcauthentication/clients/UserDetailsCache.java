@@ -0,0 +1,138 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caché opcional en proceso de los detalles de usuario obtenidos de msvc-authorization.
+ * <ul>
+ *     <li>Las entradas caducan tras un TTL fijo y la caché está acotada en tamaño.</li>
+ *     <li>Los fallos concurrentes para el mismo usuario comparten una única solicitud en curso.</li>
+ *     <li>Pasada la ventana de refresco, se devuelve el valor existente y se recarga en segundo plano
+ *         (stale-while-revalidate), ocultando la latencia de la recarga.</li>
+ * </ul>
+ * Como los detalles incluyen el hash de la contraseña, los cambios de credenciales deben
+ * notificarse mediante {@link #invalidate(String)} o esperar al TTL.
+ * Las métricas (tasa de aciertos, duración de carga) se publican bajo el nombre {@code authorization.users}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    private final boolean enabled;
+    private final long refreshAfterMs;
+    private final AsyncCache<String, CachedUser> cache;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor de UserDetailsCache.
+     *
+     * @param enabled        indica si la caché está habilitada.
+     * @param ttlMs          tiempo máximo (en milisegundos) que una entrada permanece en la caché.
+     * @param refreshAfterMs antigüedad (en milisegundos) a partir de la cual una entrada se recarga en segundo plano.
+     * @param maximumSize    número máximo de usuarios en la caché.
+     * @param meterRegistry  registro de métricas donde se publican las estadísticas de la caché.
+     */
+    public UserDetailsCache(@Value("${msvc.authorization.cache.enabled:false}") boolean enabled,
+                            @Value("${msvc.authorization.cache.ttlMs:60000}") long ttlMs,
+                            @Value("${msvc.authorization.cache.refreshAfterMs:30000}") long refreshAfterMs,
+                            @Value("${msvc.authorization.cache.maximumSize:1000}") long maximumSize,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.refreshAfterMs = refreshAfterMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authorization.users");
+    }
+
+    /**
+     * Obtiene los detalles de un usuario desde la caché o, si no están, mediante el cargador indicado.
+     *
+     * @param username el nombre de usuario.
+     * @param loader   la función que obtiene los detalles del usuario del servicio remoto.
+     * @return un {@link Mono} que emite los detalles del usuario.
+     */
+    public Mono<UserDetailsDTO> get(String username, Function<String, Mono<UserDetailsDTO>> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        CompletableFuture<CachedUser> future = cache.get(username, (key, executor) -> load(key, loader));
+        return Mono.fromFuture(future, true)
+                .doOnNext(cached -> refreshIfStale(username, future, cached, loader))
+                .map(CachedUser::userDetails);
+    }
+
+    /**
+     * Elimina un usuario de la caché (por ejemplo, tras un cambio de contraseña o de roles).
+     *
+     * @param username el nombre de usuario.
+     */
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Carga los detalles de un usuario y los envuelve con el instante de carga.
+     */
+    private CompletableFuture<CachedUser> load(String username, Function<String, Mono<UserDetailsDTO>> loader) {
+        return loader.apply(username)
+                .map(userDetails -> new CachedUser(userDetails, System.currentTimeMillis()))
+                .toFuture();
+    }
+
+    /**
+     * Lanza una recarga en segundo plano si la entrada supera la ventana de refresco,
+     * garantizando una sola recarga en curso por usuario. El resultado solo sustituye a la entrada leída:
+     * si mientras tanto se invalidó o se reemplazó, la recarga se descarta.
+     */
+    private void refreshIfStale(String username, CompletableFuture<CachedUser> current, CachedUser cached,
+                                Function<String, Mono<UserDetailsDTO>> loader) {
+        if (System.currentTimeMillis() - cached.loadedAt() < refreshAfterMs || !refreshing.add(username)) {
+            return;
+        }
+        load(username, loader).whenComplete((refreshed, error) -> {
+            refreshing.remove(username);
+            if (error != null) {
+                logger.warn("No se pudo refrescar el usuario {} en caché: {}", username, error.getMessage());
+            } else if (refreshed != null) {
+                cache.asMap().replace(username, current, CompletableFuture.completedFuture(refreshed));
+            } else {
+                cache.asMap().remove(username, current);
+            }
+        });
+    }
+
+    /**
+     * Detalles de usuario almacenados junto con el instante en que se cargaron.
+     *
+     * @param userDetails los detalles del usuario.
+     * @param loadedAt    el instante de carga en milisegundos.
+     */
+    private record CachedUser(UserDetailsDTO userDetails, long loadedAt) {
+    }
+}
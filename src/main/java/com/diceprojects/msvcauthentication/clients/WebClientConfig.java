@@ -1,25 +1,125 @@
 package com.diceprojects.msvcauthentication.clients;
 
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.logging.LogLevel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.logging.AdvancedByteBufFormat;
+
+import java.time.Duration;
+import java.util.function.Consumer;
 
 /**
  * Configuración de WebClient para la aplicación.
  *
- * Esta clase configura un bean de {@link WebClient.Builder} que será utilizado
- * para realizar llamadas HTTP no bloqueantes en los clientes Web dentro de la aplicación.
+ * Esta clase configura un único {@link ConnectionProvider} compartido por todos los clientes hacia otros
+ * microservicios (msvc-authorization, msvc-configurations), de modo que el tamaño del pool, la cola de espera
+ * de conexiones, los desalojos por inactividad y los tiempos de espera sean configurables y visibles en las métricas
+ * ({@code reactor.netty.connection.provider.*}).
  */
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Define el pool de conexiones compartido por los clientes HTTP.
+     *
+     * @param maxConnections        número máximo de conexiones por host remoto.
+     * @param pendingAcquireMaxCount número máximo de solicitudes esperando una conexión libre.
+     * @param pendingAcquireTimeoutMs tiempo máximo (en milisegundos) de espera por una conexión libre.
+     * @param maxIdleTimeMs         tiempo máximo (en milisegundos) que una conexión puede estar inactiva.
+     * @param maxLifeTimeMs         tiempo máximo de vida (en milisegundos) de una conexión.
+     * @param evictInBackgroundMs   intervalo (en milisegundos) de desalojo en segundo plano.
+     * @return el {@link ConnectionProvider} compartido.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(
+            @Value("${msvc.http.pool.maxConnections:200}") int maxConnections,
+            @Value("${msvc.http.pool.pendingAcquireMaxCount:500}") int pendingAcquireMaxCount,
+            @Value("${msvc.http.pool.pendingAcquireTimeoutMs:2000}") long pendingAcquireTimeoutMs,
+            @Value("${msvc.http.pool.maxIdleTimeMs:30000}") long maxIdleTimeMs,
+            @Value("${msvc.http.pool.maxLifeTimeMs:300000}") long maxLifeTimeMs,
+            @Value("${msvc.http.pool.evictInBackgroundMs:30000}") long evictInBackgroundMs) {
+        return ConnectionProvider.builder("downstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictInBackgroundMs))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Define el {@link HttpClient} de reactor-netty construido sobre el pool compartido.
+     *
+     * @param connectionProvider el pool de conexiones compartido.
+     * @param connectTimeoutMs   tiempo máximo (en milisegundos) para establecer una conexión.
+     * @param responseTimeoutMs  tiempo máximo (en milisegundos) de espera de la respuesta de cada llamada.
+     * @param h2c                indica si se usa HTTP/2 sin TLS (h2c) con conocimiento previo.
+     * @param compression        indica si se solicitan respuestas comprimidas ({@code Accept-Encoding: gzip}).
+     * @param wiretap            indica si se registra el tráfico HTTP a nivel DEBUG.
+     * @return el {@link HttpClient} compartido.
+     */
+    @Bean
+    public HttpClient downstreamHttpClient(ConnectionProvider connectionProvider,
+                                           @Value("${msvc.http.connectTimeoutMs:2000}") int connectTimeoutMs,
+                                           @Value("${msvc.http.responseTimeoutMs:5000}") long responseTimeoutMs,
+                                           @Value("${msvc.http.h2c:false}") boolean h2c,
+                                           @Value("${msvc.http.compression:false}") boolean compression,
+                                           @Value("${msvc.http.wiretap:false}") boolean wiretap) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .protocol(h2c ? new HttpProtocol[]{HttpProtocol.H2C} : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .compress(compression);
+        if (wiretap) {
+            httpClient = httpClient.wiretap("reactor.netty.client.HttpClient", LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+        }
+        return httpClient;
+    }
+
     /**
      * Define un bean de {@link WebClient.Builder} para ser utilizado en la aplicación.
+     * Todos los clientes construidos a partir de él comparten el {@link HttpClient} y su pool de conexiones.
+     * Es de ámbito prototipo porque el builder es mutable y cada cliente configura su propia URL base.
+     * Cada llamada se mide en {@code http.client.requests} con las etiquetas {@code client.name} y {@code uri}
+     * (la plantilla del endpoint, por ejemplo {@code /user/{username}}), por lo que las URIs deben indicarse
+     * como plantilla con variables y no construirse ya expandidas.
      *
+     * @param httpClient           el {@link HttpClient} compartido.
+     * @param observationRegistry  el registro de observaciones de Micrometer.
      * @return una instancia de {@link WebClient.Builder}.
      */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    @Scope("prototype")
+    public WebClient.Builder webClientBuilder(HttpClient httpClient, ObservationRegistry observationRegistry) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry);
+    }
+
+    /**
+     * Aplica un tiempo máximo de respuesta propio a todas las solicitudes de un cliente,
+     * sobrescribiendo el valor por defecto del {@link HttpClient} compartido.
+     *
+     * @param responseTimeoutMs tiempo máximo (en milisegundos) de espera de la respuesta.
+     * @return el consumidor a registrar con {@link WebClient.Builder#defaultRequest}.
+     */
+    static Consumer<WebClient.RequestHeadersSpec<?>> responseTimeout(long responseTimeoutMs) {
+        Duration timeout = Duration.ofMillis(responseTimeoutMs);
+        return spec -> spec.httpRequest(httpRequest -> {
+            HttpClientRequest reactorRequest = httpRequest.getNativeRequest();
+            reactorRequest.responseTimeout(timeout);
+        });
     }
 }
@@ -1,11 +1,16 @@
 package com.diceprojects.msvcauthentication.controllers;
 
 import com.diceprojects.msvcauthentication.persistences.models.dtos.AuthResponse;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.BatchValidateRequest;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.LoginRequest;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RefreshRequest;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.TokenValidationResult;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
 import com.diceprojects.msvcauthentication.services.AuthService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -33,6 +38,18 @@ public class AuthController {
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * Maneja la solicitud de renovación del token de acceso con un refresh token.
+     *
+     * @param refreshRequest el objeto de solicitud que contiene el refresh token
+     * @return un {@link Mono} que emite una {@link ResponseEntity} con el nuevo token y el nuevo refresh token
+     */
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<AuthResponse>> refresh(@RequestBody RefreshRequest refreshRequest) {
+        return authService.refresh(refreshRequest)
+                .map(ResponseEntity::ok);
+    }
+
     /**
      * Valida un token JWT y devuelve los detalles del usuario.
      *
@@ -45,4 +62,40 @@ public class AuthController {
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * Valida varios tokens JWT en una sola solicitud y devuelve el resultado de cada uno en el orden recibido.
+     * Con {@code Accept: application/x-ndjson} los resultados se envían a medida que están listos.
+     *
+     * @param request el objeto de solicitud que contiene la lista de tokens
+     * @return un {@link Flux} que emite el resultado de cada token
+     */
+    @PostMapping(value = "/validate/batch", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TokenValidationResult> validateBatch(@RequestBody BatchValidateRequest request) {
+        return authService.validateBatch(request.getTokens());
+    }
+
+    /**
+     * Revoca un token JWT antes de su expiración (por ejemplo, al cerrar sesión).
+     *
+     * @param token El token JWT a revocar.
+     * @return Un {@link Mono} que emite una {@link ResponseEntity} vacía cuando el token queda revocado.
+     */
+    @PostMapping("/revoke")
+    public Mono<ResponseEntity<Void>> revokeToken(@RequestHeader("Authorization") String token) {
+        return authService.revoke(token)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Cierra todas las sesiones del usuario del token en todos los dispositivos.
+     *
+     * @param token Un token JWT válido del usuario.
+     * @return Un {@link Mono} que emite una {@link ResponseEntity} vacía cuando las sesiones quedan cerradas.
+     */
+    @PostMapping("/logout-all")
+    public Mono<ResponseEntity<Void>> logoutAll(@RequestHeader("Authorization") String token) {
+        return authService.logoutAll(token)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
 }
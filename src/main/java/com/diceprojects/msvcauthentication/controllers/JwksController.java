@@ -0,0 +1,63 @@
+package com.diceprojects.msvcauthentication.controllers;
+
+import com.diceprojects.msvcauthentication.security.JwkSetProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Controlador que publica las claves públicas de firma en formato JWKS, para que otros servicios
+ * y el gateway verifiquen los tokens localmente sin llamar a {@code /api/auth/validate}.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class JwksController {
+
+    private final JwkSetProvider jwkSetProvider;
+    private final CacheControl cacheControl;
+
+    /**
+     * Constructor de JwksController.
+     *
+     * @param jwkSetProvider  el proveedor del documento JWKS.
+     * @param maxAgeSeconds   tiempo (en segundos) durante el cual los clientes pueden reutilizar el documento;
+     *                        debe ser menor que {@code jwt.keys.activationDelayMs} para que las claves nuevas
+     *                        se conozcan antes de empezar a firmar.
+     */
+    public JwksController(JwkSetProvider jwkSetProvider,
+                          @Value("${jwt.jwks.maxAgeSeconds:60}") long maxAgeSeconds) {
+        this.jwkSetProvider = jwkSetProvider;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    /**
+     * Devuelve el documento JWKS con las claves públicas vigentes.
+     * Responde {@code 304 Not Modified} si la ETag enviada en {@code If-None-Match} coincide.
+     *
+     * @param exchange el intercambio HTTP en curso.
+     * @return un {@link Mono} que emite una {@link ResponseEntity} con el documento JWKS.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public Mono<ResponseEntity<String>> jwks(ServerWebExchange exchange) {
+        return jwkSetProvider.current()
+                .map(document -> {
+                    if (exchange.checkNotModified(document.etag())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).<String>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(document.etag())
+                            .cacheControl(cacheControl)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(document.json());
+                });
+    }
+}
@@ -0,0 +1,39 @@
+package com.diceprojects.msvcauthentication.exceptions;
+
+import com.diceprojects.msvcauthentication.security.TokenStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * InvalidTokenException se emite cuando un token JWT es rechazado y se traduce en una respuesta
+ * HTTP 401 (Unauthorized) con el motivo del rechazo. No captura la pila de llamadas: el motivo ya
+ * identifica el fallo y un volumen alto de tokens inválidos no debe pagar ese coste.
+ */
+public class InvalidTokenException extends ResponseStatusException {
+
+    private final TokenStatus tokenStatus;
+
+    /**
+     * Construye una nueva InvalidTokenException para el resultado de verificación indicado.
+     *
+     * @param tokenStatus el motivo del rechazo del token.
+     */
+    public InvalidTokenException(TokenStatus tokenStatus) {
+        super(HttpStatus.UNAUTHORIZED, tokenStatus.getReason());
+        this.tokenStatus = tokenStatus;
+    }
+
+    /**
+     * Obtiene el motivo del rechazo del token.
+     *
+     * @return el resultado de la verificación.
+     */
+    public TokenStatus getTokenStatus() {
+        return tokenStatus;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,21 @@
+package com.diceprojects.msvcauthentication.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ServiceOverloadedException se lanza cuando un recurso interno acotado (por ejemplo, la cola de
+ * verificación de contraseñas) está lleno y la solicitud se rechaza de inmediato en lugar de quedar en espera.
+ * Se traduce en una respuesta HTTP 503 (Service Unavailable).
+ */
+public class ServiceOverloadedException extends ResponseStatusException {
+
+    /**
+     * Construye una nueva ServiceOverloadedException con el mensaje de detalle especificado.
+     *
+     * @param message el mensaje de detalle que indica qué recurso está saturado.
+     */
+    public ServiceOverloadedException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,80 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import com.diceprojects.msvcauthentication.utils.StageTimer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Base de los eventos de Java Flight Recorder del servicio, agrupados en la categoría {@code msvc-Authentication}.
+ * Todos llevan la duración (propia de JFR) y el resultado de la operación; no capturan la pila de llamadas.
+ * <p>
+ * Cuando no hay ninguna grabación activa, o el evento está desactivado en la configuración de la grabación,
+ * no se crea ningún objeto: las operaciones síncronas usan un evento local que el JIT elimina, y las reactivas
+ * comprueban primero {@link Event#isEnabled()} sobre una instancia de referencia.
+ * Los eventos de alta frecuencia tienen un umbral por defecto, de modo que una grabación continua solo conserva
+ * los casos lentos; el umbral puede cambiarse en el fichero {@code .jfc} de la grabación.
+ */
+@Category("msvc-Authentication")
+@StackTrace(false)
+public abstract class AuthEvent extends Event {
+
+    @Label("Outcome")
+    @Description("Resultado de la operación")
+    protected String outcome;
+
+    /**
+     * Registra un evento alrededor de una operación reactiva: empieza al suscribirse y se confirma con la
+     * señal final. Si el evento no está habilitado, devuelve la operación sin modificar.
+     *
+     * @param probe   instancia de referencia del tipo de evento, usada solo para consultar si está habilitado.
+     * @param factory crea el evento de cada suscripción.
+     * @param source  la operación.
+     * @param onValue completa los campos del evento con el valor emitido; el resultado por defecto es {@code success}.
+     * @param <E>     el tipo de evento.
+     * @param <T>     el tipo del resultado.
+     * @return la operación instrumentada.
+     */
+    public static <E extends AuthEvent, T> Mono<T> record(E probe, Supplier<E> factory, Mono<T> source,
+                                                          BiConsumer<E, T> onValue) {
+        if (!probe.isEnabled()) {
+            return source;
+        }
+        return Mono.defer(() -> {
+            E event = factory.get();
+            event.begin();
+            return source
+                    .doOnSuccess(value -> {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.outcome = value != null ? "success" : "empty";
+                            if (value != null) {
+                                onValue.accept(event, value);
+                            }
+                            event.commit();
+                        }
+                    })
+                    .doOnError(error -> event.commit(StageTimer.Outcome.of(error).getTag()))
+                    .doOnCancel(() -> event.commit("cancelled"));
+        });
+    }
+
+    /**
+     * Confirma el evento con el resultado indicado si supera el umbral de la grabación.
+     *
+     * @param outcome el resultado de la operación.
+     */
+    protected void commit(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
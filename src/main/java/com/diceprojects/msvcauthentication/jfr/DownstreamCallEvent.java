@@ -0,0 +1,71 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Llamada HTTP a otro microservicio (msvc-authorization, msvc-configurations), desde el envío de la solicitud
+ * hasta la recepción de las cabeceras de la respuesta. Cada intento (reintento o solicitud de hedging) es un
+ * evento propio.
+ */
+@Name("com.diceprojects.auth.DownstreamCall")
+@Label("Downstream Call")
+@Description("Llamada HTTP a otro microservicio")
+public class DownstreamCallEvent extends AuthEvent {
+
+    private static final DownstreamCallEvent PROBE = new DownstreamCallEvent(null, null, null);
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    @Label("Client")
+    String client;
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Plantilla de la URI llamada, sin los valores de sus variables")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Response Size")
+    @Description("Valor de Content-Length de la respuesta; -1 si no se conoce")
+    @DataAmount(DataAmount.BYTES)
+    long responseSize;
+
+    DownstreamCallEvent(String client, String method, String endpoint) {
+        this.client = client;
+        this.method = method;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Crea el filtro que registra un evento por cada llamada de un cliente.
+     *
+     * @param client el nombre del microservicio llamado.
+     * @return el filtro a registrar con {@link WebClient.Builder#filter(ExchangeFilterFunction)}.
+     */
+    public static ExchangeFilterFunction filter(String client) {
+        return (request, next) -> record(PROBE,
+                () -> new DownstreamCallEvent(client, request.method().name(), endpoint(request)),
+                next.exchange(request), (event, response) -> {
+                    HttpStatusCode status = response.statusCode();
+                    event.outcome = status.is4xxClientError() ? "rejected" : status.isError() ? "error" : "success";
+                    event.status = status.value();
+                    event.responseSize = response.headers().contentLength().orElse(-1);
+                });
+    }
+
+    private static String endpoint(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(Object::toString)
+                .orElseGet(() -> request.url().getPath());
+    }
+}
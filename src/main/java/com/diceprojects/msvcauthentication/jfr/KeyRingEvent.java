@@ -0,0 +1,50 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Carga o rotación del anillo de claves de firma JWT, incluidas las llamadas a msvc-configurations que
+ * implican. Cada reintento de la carga inicial es un evento propio.
+ */
+@Name("com.diceprojects.auth.KeyRing")
+@Label("Key Ring")
+@Description("Carga o rotación del anillo de claves de firma JWT")
+public class KeyRingEvent extends AuthEvent {
+
+    /**
+     * Instancia de referencia para consultar si el evento está habilitado.
+     */
+    public static final KeyRingEvent PROBE = new KeyRingEvent(null);
+
+    @Label("Operation")
+    @Description("bootstrap (cargar, migrar o generar el anillo) o rotate")
+    String operation;
+
+    @Label("Keys")
+    int keys;
+
+    @Label("Active Algorithm")
+    String algorithm;
+
+    /**
+     * Crea el evento de una operación sobre el anillo.
+     *
+     * @param operation la operación: {@code bootstrap} o {@code rotate}.
+     */
+    public KeyRingEvent(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Completa el evento con el anillo resultante.
+     *
+     * @param keys      el número de claves del anillo.
+     * @param algorithm el algoritmo de la primera clave del anillo.
+     */
+    public void setRing(int keys, String algorithm) {
+        this.keys = keys;
+        this.algorithm = algorithm;
+    }
+}
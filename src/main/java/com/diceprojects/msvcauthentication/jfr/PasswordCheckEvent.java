@@ -0,0 +1,58 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Comprobación de una contraseña contra su hash BCrypt, en el hilo del planificador de hash.
+ * No incluye la espera en la cola del planificador ({@code auth.hashing.wait}).
+ */
+@Name("com.diceprojects.auth.PasswordCheck")
+@Label("Password Check")
+@Description("Comprobación de una contraseña contra su hash BCrypt")
+public class PasswordCheckEvent extends AuthEvent {
+
+    @Label("Cost")
+    @Description("Factor de coste (log2 de las rondas) del hash; -1 si no es un hash BCrypt")
+    int cost;
+
+    /**
+     * Confirma el evento si supera el umbral de la grabación.
+     *
+     * @param matches {@code true} si la contraseña coincide.
+     * @param hash    el hash almacenado, del que solo se lee el factor de coste.
+     */
+    public void commit(boolean matches, String hash) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = matches ? "match" : "mismatch";
+            this.cost = costOf(hash);
+            commit();
+        }
+    }
+
+    /**
+     * Confirma el evento de una comprobación que terminó con un error.
+     *
+     * @param hash el hash almacenado, del que solo se lee el factor de coste.
+     */
+    public void commitError(String hash) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = "error";
+            this.cost = costOf(hash);
+            commit();
+        }
+    }
+
+    private static int costOf(String hash) {
+        // Formato $2a$10$...: el coste son los dos dígitos tras el segundo '$'
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        char tens = hash.charAt(4);
+        char units = hash.charAt(5);
+        return Character.isDigit(tens) && Character.isDigit(units) ? (tens - '0') * 10 + (units - '0') : -1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Firma de un token JWT con la clave activa del anillo.
+ * Se usa como evento local: {@code begin()} antes de construir el token y {@link #commit(String, String, int, String)}
+ * al terminar.
+ */
+@Name("com.diceprojects.auth.TokenSign")
+@Label("Token Sign")
+@Description("Firma de un token JWT")
+@Threshold("1 ms")
+public class TokenSignEvent extends AuthEvent {
+
+    @Label("Key Id")
+    String kid;
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Roles")
+    int roles;
+
+    @Label("Token Length")
+    @DataAmount(DataAmount.BYTES)
+    int tokenLength;
+
+    /**
+     * Confirma el evento si supera el umbral de la grabación.
+     *
+     * @param kid       el identificador de la clave de firma.
+     * @param algorithm el algoritmo de firma.
+     * @param roles     el número de roles incluidos en el token.
+     * @param token     el token firmado.
+     */
+    public void commit(String kid, String algorithm, int roles, String token) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = "success";
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.roles = roles;
+            this.tokenLength = token.length();
+            commit();
+        }
+    }
+}
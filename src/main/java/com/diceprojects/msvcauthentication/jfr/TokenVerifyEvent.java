@@ -0,0 +1,45 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Verificación de un token JWT: comprobación de forma, caché de tokens verificados, firma y expiración,
+ * lista de tokens revocados y epoch del usuario. El resultado es la etiqueta del {@code TokenStatus}.
+ */
+@Name("com.diceprojects.auth.TokenVerify")
+@Label("Token Verify")
+@Description("Verificación de un token JWT")
+@Threshold("1 ms")
+public class TokenVerifyEvent extends AuthEvent {
+
+    /**
+     * Instancia de referencia para consultar si el evento está habilitado.
+     */
+    public static final TokenVerifyEvent PROBE = new TokenVerifyEvent(0);
+
+    @Label("Token Length")
+    @DataAmount(DataAmount.BYTES)
+    int tokenLength;
+
+    /**
+     * Crea el evento de la verificación de un token.
+     *
+     * @param tokenLength la longitud del token recibido.
+     */
+    public TokenVerifyEvent(int tokenLength) {
+        this.tokenLength = tokenLength;
+    }
+
+    /**
+     * Fija el resultado de la verificación.
+     *
+     * @param outcome la etiqueta del estado del token.
+     */
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+}
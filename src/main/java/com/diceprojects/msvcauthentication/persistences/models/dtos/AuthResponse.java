@@ -14,6 +14,7 @@ public class AuthResponse {
     private String username;
     private String token;
     private String expiryDate;
+    private String refreshToken;
 
     /**
      * Constructor para crear una respuesta de autenticación.
@@ -23,8 +24,21 @@ public class AuthResponse {
      * @param expiryDate la fecha de expiración del token
      */
     public AuthResponse(String username, String token, Date expiryDate) {
+        this(username, token, expiryDate, null);
+    }
+
+    /**
+     * Constructor para crear una respuesta de autenticación con refresh token.
+     *
+     * @param username     el nombre de usuario autenticado
+     * @param token        el token JWT generado
+     * @param expiryDate   la fecha de expiración del token
+     * @param refreshToken el refresh token de un solo uso, o {@code null} si no se emitió
+     */
+    public AuthResponse(String username, String token, Date expiryDate, String refreshToken) {
         this.username = username;
         this.token = token;
         this.expiryDate = new SimpleDateFormat("HH:mm:ss").format(expiryDate);
+        this.refreshToken = refreshToken;
     }
 }
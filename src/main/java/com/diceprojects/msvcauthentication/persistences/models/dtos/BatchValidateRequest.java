@@ -0,0 +1,14 @@
+package com.diceprojects.msvcauthentication.persistences.models.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO para manejar las solicitudes de validación de varios tokens a la vez.
+ */
+@Data
+public class BatchValidateRequest {
+
+    private List<String> tokens;
+}
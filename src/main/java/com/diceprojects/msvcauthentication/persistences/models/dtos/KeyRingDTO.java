@@ -0,0 +1,24 @@
+package com.diceprojects.msvcauthentication.persistences.models.dtos;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO que representa el anillo de claves de firma JWT tal como se guarda en el parámetro
+ * {@code jwtKeyRing} de msvc-configurations.
+ */
+@Data
+public class KeyRingDTO {
+
+    /**
+     * Tiempo de expiración de los tokens emitidos, en milisegundos.
+     */
+    private long timeExpire;
+
+    /**
+     * Claves del anillo: la activa, las pendientes de activación y las que solo sirven para verificar.
+     */
+    private List<SigningKeyDTO> keys = new ArrayList<>();
+}
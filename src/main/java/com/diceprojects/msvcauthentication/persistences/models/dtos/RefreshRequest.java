@@ -0,0 +1,12 @@
+package com.diceprojects.msvcauthentication.persistences.models.dtos;
+
+import lombok.Data;
+
+/**
+ * DTO para manejar las solicitudes de renovación del token de acceso.
+ */
+@Data
+public class RefreshRequest {
+
+    private String refreshToken;
+}
@@ -0,0 +1,40 @@
+package com.diceprojects.msvcauthentication.persistences.models.dtos;
+
+import lombok.Data;
+
+/**
+ * DTO que representa una clave de firma JWT dentro del anillo de claves.
+ */
+@Data
+public class SigningKeyDTO {
+
+    /**
+     * Identificador de la clave, publicado en la cabecera {@code kid} de los tokens.
+     */
+    private String kid;
+
+    /**
+     * Algoritmo de firma de la clave ({@code HS512}, {@code ES256} o {@code EdDSA}); {@code null} equivale a {@code HS512}.
+     */
+    private String algorithm;
+
+    /**
+     * Secreto HMAC o clave privada (PKCS#8), codificados en Base64.
+     */
+    private String secret;
+
+    /**
+     * Clave pública (X.509) codificada en Base64, solo para algoritmos asimétricos.
+     */
+    private String publicKey;
+
+    /**
+     * Instante (epoch en milisegundos) a partir del cual la clave firma tokens.
+     */
+    private long activateAt;
+
+    /**
+     * Instante (epoch en milisegundos) en el que la clave se retira del anillo, o {@code null} si no tiene retiro programado.
+     */
+    private Long retireAt;
+}
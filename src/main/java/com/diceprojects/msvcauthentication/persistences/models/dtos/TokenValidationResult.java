@@ -0,0 +1,44 @@
+package com.diceprojects.msvcauthentication.persistences.models.dtos;
+
+import lombok.Data;
+
+/**
+ * DTO con el resultado de la validación de un token dentro de un lote.
+ */
+@Data
+public class TokenValidationResult {
+
+    private int index;
+    private boolean valid;
+    private UserDetailsDTO user;
+    private String error;
+
+    /**
+     * Crea el resultado de un token válido.
+     *
+     * @param index la posición del token en la solicitud
+     * @param user  los detalles del usuario del token
+     * @return el resultado de la validación
+     */
+    public static TokenValidationResult valid(int index, UserDetailsDTO user) {
+        TokenValidationResult result = new TokenValidationResult();
+        result.setIndex(index);
+        result.setValid(true);
+        result.setUser(user);
+        return result;
+    }
+
+    /**
+     * Crea el resultado de un token rechazado.
+     *
+     * @param index la posición del token en la solicitud
+     * @param error el motivo del rechazo
+     * @return el resultado de la validación
+     */
+    public static TokenValidationResult invalid(int index, String error) {
+        TokenValidationResult result = new TokenValidationResult();
+        result.setIndex(index);
+        result.setError(error);
+        return result;
+    }
+}
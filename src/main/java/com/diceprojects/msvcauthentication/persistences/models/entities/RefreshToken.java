@@ -0,0 +1,64 @@
+package com.diceprojects.msvcauthentication.persistences.models.entities;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Entidad que representa un refresh token emitido.
+ * El token en claro nunca se guarda: el identificador del documento es el resumen SHA-256 del token.
+ * Todos los tokens obtenidos a partir de un mismo inicio de sesión comparten {@link #familyId}, lo que permite
+ * revocar la familia completa si se detecta la reutilización de un token ya consumido.
+ */
+@Data
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    /**
+     * Resumen SHA-256 (Base64 URL) del token.
+     */
+    @Id
+    private String id;
+
+    /**
+     * Identificador de la familia de tokens creada en el inicio de sesión.
+     */
+    private String familyId;
+
+    /**
+     * Identificador del usuario.
+     */
+    private String userId;
+
+    /**
+     * Nombre del usuario.
+     */
+    private String username;
+
+    /**
+     * Fecha de emisión del token.
+     */
+    private Date issuedAt;
+
+    /**
+     * Fecha de expiración del token; un índice TTL elimina el documento al alcanzarla.
+     */
+    private Date expiresAt;
+
+    /**
+     * Fecha límite de la familia: ninguna rotación puede extender la sesión más allá de ella.
+     */
+    private Date familyExpiresAt;
+
+    /**
+     * Fecha en la que el token se consumió en una rotación, o {@code null} si sigue sin usarse.
+     */
+    private Date usedAt;
+
+    /**
+     * Indica si el token fue revocado.
+     */
+    private boolean revoked;
+}
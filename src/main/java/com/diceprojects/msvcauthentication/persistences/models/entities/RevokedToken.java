@@ -0,0 +1,32 @@
+package com.diceprojects.msvcauthentication.persistences.models.entities;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Entidad que representa un token JWT revocado antes de su expiración.
+ * Un índice TTL sobre {@link #expiresAt} elimina la entrada cuando el token habría expirado de todos modos.
+ */
+@Data
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+    /**
+     * Identificador del token (claim {@code jti}).
+     */
+    @Id
+    private String id;
+
+    /**
+     * Fecha de expiración del token revocado.
+     */
+    private Date expiresAt;
+
+    /**
+     * Fecha de la revocación, usada para la sincronización incremental entre instancias.
+     */
+    private Date revokedAt;
+}
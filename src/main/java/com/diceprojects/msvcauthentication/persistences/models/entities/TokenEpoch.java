@@ -0,0 +1,33 @@
+package com.diceprojects.msvcauthentication.persistences.models.entities;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Entidad que representa la versión (epoch) vigente de los tokens de un usuario.
+ * Los tokens emitidos antes del último incremento ({@code updatedAt}) dejan de ser válidos.
+ */
+@Data
+@Document(collection = "token_epochs")
+public class TokenEpoch {
+
+    /**
+     * Nombre del usuario (claim {@code sub} de sus tokens).
+     */
+    @Id
+    private String id;
+
+    /**
+     * Número de veces que se cerraron todas las sesiones del usuario.
+     */
+    private long epoch;
+
+    /**
+     * Fecha del último cambio: invalida los tokens emitidos antes y se usa para la sincronización incremental
+     * entre instancias.
+     */
+    private Date updatedAt;
+}
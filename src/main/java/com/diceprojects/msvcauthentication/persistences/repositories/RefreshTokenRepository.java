@@ -0,0 +1,35 @@
+package com.diceprojects.msvcauthentication.persistences.repositories;
+
+import com.diceprojects.msvcauthentication.persistences.models.entities.RefreshToken;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio reactivo de refresh tokens.
+ */
+@Repository
+public interface RefreshTokenRepository extends ReactiveMongoRepository<RefreshToken, String> {
+
+    /**
+     * Revoca todos los tokens de una familia.
+     *
+     * @param familyId el identificador de la familia.
+     * @return un {@link Mono} que emite el número de tokens revocados.
+     */
+    @Query("{ 'familyId': ?0, 'revoked': false }")
+    @Update("{ '$set': { 'revoked': true } }")
+    Mono<Long> revokeFamily(String familyId);
+
+    /**
+     * Revoca todos los tokens de un usuario.
+     *
+     * @param username el nombre del usuario.
+     * @return un {@link Mono} que emite el número de tokens revocados.
+     */
+    @Query("{ 'username': ?0, 'revoked': false }")
+    @Update("{ '$set': { 'revoked': true } }")
+    Mono<Long> revokeByUsername(String username);
+}
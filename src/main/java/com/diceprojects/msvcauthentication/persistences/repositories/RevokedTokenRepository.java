@@ -0,0 +1,31 @@
+package com.diceprojects.msvcauthentication.persistences.repositories;
+
+import com.diceprojects.msvcauthentication.persistences.models.entities.RevokedToken;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Date;
+
+/**
+ * Repositorio reactivo de tokens revocados.
+ */
+@Repository
+public interface RevokedTokenRepository extends ReactiveMongoRepository<RevokedToken, String> {
+
+    /**
+     * Obtiene las revocaciones registradas después de una fecha.
+     *
+     * @param revokedAt la fecha a partir de la cual buscar.
+     * @return un {@link Flux} con las revocaciones posteriores.
+     */
+    Flux<RevokedToken> findByRevokedAtAfter(Date revokedAt);
+
+    /**
+     * Obtiene las revocaciones de tokens que aún no han expirado.
+     *
+     * @param expiresAt la fecha actual.
+     * @return un {@link Flux} con las revocaciones vigentes.
+     */
+    Flux<RevokedToken> findByExpiresAtAfter(Date expiresAt);
+}
@@ -0,0 +1,23 @@
+package com.diceprojects.msvcauthentication.persistences.repositories;
+
+import com.diceprojects.msvcauthentication.persistences.models.entities.TokenEpoch;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Date;
+
+/**
+ * Repositorio reactivo de epochs de tokens por usuario.
+ */
+@Repository
+public interface TokenEpochRepository extends ReactiveMongoRepository<TokenEpoch, String> {
+
+    /**
+     * Obtiene las epochs modificadas después de una fecha.
+     *
+     * @param updatedAt la fecha a partir de la cual buscar.
+     * @return un {@link Flux} con las epochs modificadas.
+     */
+    Flux<TokenEpoch> findByUpdatedAtAfter(Date updatedAt);
+}
@@ -1,6 +1,10 @@
 package com.diceprojects.msvcauthentication.security;
 
 import com.diceprojects.msvcauthentication.clients.AuthorizationClient;
+import com.diceprojects.msvcauthentication.exceptions.ServiceOverloadedException;
+import com.diceprojects.msvcauthentication.jfr.PasswordCheckEvent;
+import com.diceprojects.msvcauthentication.utils.StageTimer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -26,23 +30,36 @@ public class CustomReactiveAuthenticationManager implements ReactiveAuthenticati
 
     private final AuthorizationClient authorizationClient;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingScheduler passwordHashingScheduler;
+    private final StageTimer userLookupTimer;
+    private final StageTimer passwordCheckTimer;
 
     /**
      * Constructor de la clase.
      *
      * @param authorizationClient Cliente que se utiliza para obtener detalles del usuario desde el servicio de autorización.
      * @param passwordEncoder Codificador de contraseñas utilizado para verificar la validez de la contraseña proporcionada.
+     * @param passwordHashingScheduler Planificador acotado donde se ejecuta la verificación de la contraseña.
+     * @param meterRegistry Registro de métricas donde se publican los tiempos de las etapas {@code user_lookup}
+     *                      y {@code password_check} del inicio de sesión ({@code auth.login}).
      */
-    public CustomReactiveAuthenticationManager(AuthorizationClient authorizationClient, @Lazy PasswordEncoder passwordEncoder) {
+    public CustomReactiveAuthenticationManager(AuthorizationClient authorizationClient, @Lazy PasswordEncoder passwordEncoder,
+                                               PasswordHashingScheduler passwordHashingScheduler, MeterRegistry meterRegistry) {
         this.authorizationClient = authorizationClient;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingScheduler = passwordHashingScheduler;
+        this.userLookupTimer = new StageTimer("auth.login", "user_lookup", "Duración de las etapas del inicio de sesión", meterRegistry);
+        this.passwordCheckTimer = new StageTimer("auth.login", "password_check", "Duración de las etapas del inicio de sesión", meterRegistry);
     }
 
     /**
      * Autentica al usuario basado en las credenciales proporcionadas.
+     * La verificación de la contraseña se ejecuta en el {@link PasswordHashingScheduler}, fuera del event loop;
+     * si su cola está llena, se emite una {@link ServiceOverloadedException} en lugar de un error de credenciales.
      *
      * @param authentication Objeto de autenticación que contiene el nombre de usuario y la contraseña.
-     * @return Un {@link Mono} que emite un objeto de {@link Authentication} si la autenticación es exitosa,
+     * @return Un {@link Mono} que emite un objeto de {@link Authentication} si la autenticación es exitosa
+     *         (con el {@code UserDetailsDTO} cargado como detalles),
      *         de lo contrario, emite un error de autenticación.
      */
     @Override
@@ -50,24 +67,49 @@ public class CustomReactiveAuthenticationManager implements ReactiveAuthenticati
         String username = authentication.getName();
         String password = authentication.getCredentials().toString();
 
-        return authorizationClient.getUserByUsername(username)
+        return userLookupTimer.time(authorizationClient.getUserByUsername(username))
                 .switchIfEmpty(Mono.error(new BadCredentialsException("Usuario no encontrado")))
-                .flatMap(userDetails -> {
-                    if (passwordEncoder.matches(password, userDetails.getPassword())) {
+                .flatMap(userDetails -> passwordCheckTimer.time(passwordHashingScheduler.submit(() -> matches(password, userDetails.getPassword())))
+                        .flatMap(matches -> {
+                            if (matches) {
 
-                        // Convierte la lista de roles a las autoridades de Spring Security
-                        List<GrantedAuthority> authorities = userDetails.getRoles().stream()
-                                .map(roleDTO -> new SimpleGrantedAuthority(roleDTO.getRole()))
-                                .collect(Collectors.toList());
+                                // Convierte la lista de roles a las autoridades de Spring Security
+                                List<GrantedAuthority> authorities = userDetails.getRoles().stream()
+                                        .map(roleDTO -> new SimpleGrantedAuthority(roleDTO.getRole()))
+                                        .collect(Collectors.toList());
 
-                        return Mono.just((Authentication) new UsernamePasswordAuthenticationToken(username, password, authorities));
-                    } else {
-                        return Mono.error(new BadCredentialsException("Credenciales inválidas"));
-                    }
-                })
-                .onErrorResume(e -> {
+                                // Los detalles del usuario viajan con la autenticación para evitar nuevas consultas
+                                UsernamePasswordAuthenticationToken result = new UsernamePasswordAuthenticationToken(username, password, authorities);
+                                result.setDetails(userDetails);
+                                return Mono.just((Authentication) result);
+                            } else {
+                                return Mono.error(new BadCredentialsException("Credenciales inválidas"));
+                            }
+                        }))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
 
                     return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciales inválidas"));
                 });
     }
+
+    /**
+     * Comprueba la contraseña contra su hash y, si hay una grabación de JFR activa, lo registra como
+     * {@link PasswordCheckEvent}. Se ejecuta en el hilo del {@link PasswordHashingScheduler}.
+     *
+     * @param password la contraseña recibida.
+     * @param hash     el hash almacenado.
+     * @return {@code true} si la contraseña coincide.
+     */
+    private boolean matches(String password, String hash) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        try {
+            boolean matches = passwordEncoder.matches(password, hash);
+            event.commit(matches, hash);
+            return matches;
+        } catch (RuntimeException e) {
+            event.commitError(hash);
+            throw e;
+        }
+    }
 }
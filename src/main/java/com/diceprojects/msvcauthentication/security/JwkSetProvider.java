@@ -0,0 +1,87 @@
+package com.diceprojects.msvcauthentication.security;
+
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Construye el documento JWKS con las claves públicas del anillo de claves.
+ * Solo se publican las claves asimétricas (las claves HMAC nunca salen del servicio); se incluyen también
+ * las claves pendientes de activación y las que están en retiro, para que los servicios que verifican
+ * localmente conozcan una clave antes de que empiece a firmar y mientras queden tokens firmados con ella.
+ * El documento y su ETag se calculan una sola vez por anillo y se reutilizan en cada solicitud.
+ */
+@Component
+public class JwkSetProvider {
+
+    private final KeyRingManager keyRingManager;
+    private volatile JwkSetDocument document;
+
+    /**
+     * Constructor de JwkSetProvider.
+     *
+     * @param keyRingManager el gestor del anillo de claves de firma.
+     */
+    public JwkSetProvider(KeyRingManager keyRingManager) {
+        this.keyRingManager = keyRingManager;
+    }
+
+    /**
+     * Obtiene el documento JWKS del anillo vigente.
+     *
+     * @return un {@link Mono} que emite el documento JWKS.
+     */
+    public Mono<JwkSetDocument> current() {
+        return keyRingManager.keyRing().map(this::documentFor);
+    }
+
+    private JwkSetDocument documentFor(KeyRing keyRing) {
+        JwkSetDocument current = this.document;
+        if (current != null && current.keyRing() == keyRing) {
+            return current;
+        }
+        StringJoiner keys = new StringJoiner(",", "{\"keys\":[", "]}");
+        for (KeyRing.SigningKey key : keyRing.keys()) {
+            if (key.algorithm().isAsymmetric()) {
+                PublicJwk<?> jwk = Jwks.builder()
+                        .key((PublicKey) key.verificationKey())
+                        .id(key.kid())
+                        .algorithm(key.algorithm().name())
+                        .publicKeyUse("sig")
+                        .build();
+                keys.add(Jwks.json(jwk));
+            }
+        }
+        String json = keys.toString();
+        JwkSetDocument built = new JwkSetDocument(keyRing, json, etag(json));
+        this.document = built;
+        return built;
+    }
+
+    private static String etag(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Documento JWKS serializado junto con su ETag.
+     *
+     * @param keyRing el anillo a partir del cual se construyó.
+     * @param json    el documento JWKS en JSON.
+     * @param etag    la ETag fuerte del documento.
+     */
+    public record JwkSetDocument(KeyRing keyRing, String json, String etag) {
+    }
+}
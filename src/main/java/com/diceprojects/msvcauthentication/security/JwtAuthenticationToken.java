@@ -0,0 +1,73 @@
+package com.diceprojects.msvcauthentication.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Autenticación basada en un token JWT.
+ * Antes de verificarse solo contiene el token recibido; una vez verificada contiene además el usuario
+ * del token, sus claims y las autoridades obtenidas de la claim de roles.
+ */
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final String token;
+    private final transient Claims claims;
+
+    /**
+     * Crea una autenticación pendiente de verificar a partir del token recibido.
+     *
+     * @param token el token JWT sin prefijo.
+     */
+    public JwtAuthenticationToken(String token) {
+        super(List.of());
+        this.token = token;
+        this.claims = null;
+        setAuthenticated(false);
+    }
+
+    /**
+     * Crea una autenticación verificada.
+     *
+     * @param token       el token JWT sin prefijo.
+     * @param claims      las claims verificadas del token.
+     * @param authorities las autoridades del usuario del token.
+     */
+    public JwtAuthenticationToken(String token, Claims claims, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.token = token;
+        this.claims = claims;
+        setDetails(claims);
+        super.setAuthenticated(true);
+    }
+
+    /**
+     * Obtiene las claims verificadas del token.
+     *
+     * @return las claims, o {@code null} si la autenticación aún no se ha verificado.
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("Una autenticación JWT solo puede marcarse como verificada al construirla");
+        }
+        super.setAuthenticated(false);
+    }
+}
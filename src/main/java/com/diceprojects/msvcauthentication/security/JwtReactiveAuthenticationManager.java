@@ -0,0 +1,78 @@
+package com.diceprojects.msvcauthentication.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Gestor de autenticación reactiva para los tokens JWT de la cadena de filtros.
+ * A diferencia de {@link CustomReactiveAuthenticationManager}, que verifica usuario y contraseña, este gestor
+ * construye la autenticación únicamente a partir de las claims verificadas: no consulta al servicio de autorización
+ * ni calcula hashes de contraseñas. Su coste es una verificación de firma, o ninguna si el token ya está en la
+ * caché de tokens verificados.
+ */
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Constructor de JwtReactiveAuthenticationManager.
+     *
+     * @param jwtUtil la utilidad JWT para verificar los tokens.
+     */
+    public JwtReactiveAuthenticationManager(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * Verifica el token de una {@link JwtAuthenticationToken} y devuelve la autenticación con las autoridades
+     * de la claim de roles. Cualquier otro tipo de autenticación se ignora.
+     *
+     * @param authentication la autenticación pendiente de verificar.
+     * @return un {@link Mono} que emite la autenticación verificada, o un error de autenticación sin pila de llamadas
+     *         si el token no es válido.
+     */
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken pending)) {
+            return Mono.empty();
+        }
+        String token = (String) pending.getCredentials();
+        return jwtUtil.verify(token)
+                .flatMap(verification -> verification.isValid()
+                        ? Mono.just((Authentication) new JwtAuthenticationToken(token, verification.claims(), authoritiesOf(verification.claims())))
+                        : Mono.error(new RejectedTokenException(verification.status())));
+    }
+
+    /**
+     * Obtiene las autoridades a partir de la claim de roles, que lista los roles separados por comas.
+     *
+     * @param claims las claims verificadas del token.
+     * @return las autoridades del usuario del token.
+     */
+    private static List<GrantedAuthority> authoritiesOf(Claims claims) {
+        String roles = claims.get(UserClaims.ROLES, String.class);
+        return roles == null || roles.isBlank() ? List.of() : AuthorityUtils.commaSeparatedStringToAuthorityList(roles);
+    }
+
+    /**
+     * Error de autenticación por un token rechazado. No captura la pila de llamadas: el motivo ya identifica el fallo.
+     */
+    private static final class RejectedTokenException extends BadCredentialsException {
+
+        private RejectedTokenException(TokenStatus status) {
+            super(status.getReason());
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.diceprojects.msvcauthentication.security;
 
-import com.diceprojects.msvcauthentication.exceptions.ErrorHandler;
-import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
 import org.springframework.web.server.ServerWebExchange;
@@ -10,47 +8,22 @@ import reactor.core.publisher.Mono;
 
 /**
  * Convertidor de autenticación del servidor que maneja tokens JWT.
+ * Solo extrae el token de la cabecera Authorization; la verificación la realiza {@link JwtReactiveAuthenticationManager},
+ * de modo que la firma se comprueba una única vez por solicitud.
  */
 public class JwtServerAuthenticationConverter implements ServerAuthenticationConverter {
 
-    private final JwtUtil jwtUtil;
-
-    /**
-     * Constructor para crear una instancia de JwtServerAuthenticationConverter.
-     *
-     * @param jwtUtil el utilitario de JWT para validar y extraer información del token
-     */
-    public JwtServerAuthenticationConverter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
-    }
-
     /**
-     * Convierte la solicitud del servidor en una autenticación basada en JWT.
+     * Convierte la solicitud del servidor en una autenticación JWT pendiente de verificar.
      *
      * @param exchange la solicitud del servidor
-     * @return un Mono que emite la autenticación si el token es válido, o vacío si no lo es
+     * @return un Mono que emite la autenticación pendiente, o vacío si la solicitud no lleva un token Bearer
      */
     @Override
     public Mono<Authentication> convert(ServerWebExchange exchange) {
-        return Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst("Authorization"))
-                .filter(token -> token.startsWith("Bearer "))
-                .flatMap(token -> {
-                    String jwtToken = token.substring(7);
-                    return jwtUtil.validateToken(jwtToken)
-                            .flatMap(isValid -> {
-                                if (isValid) {
-                                    String username = jwtUtil.getClaimsFromToken(jwtToken).getSubject();
-                                    Authentication authentication = new UsernamePasswordAuthenticationToken(username, null, null);
-                                    return Mono.just(authentication);
-                                } else {
-                                    return Mono.empty();
-                                }
-                            });
-                })
-                .onErrorResume(e -> {
-                    ErrorHandler.handleError("Error converting JWT token", e, HttpStatus.UNAUTHORIZED);
-                    return Mono.empty();
-                });
+        return Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(header -> header.startsWith("Bearer ") && header.length() > 7)
+                .map(header -> new JwtAuthenticationToken(header.substring(7)));
     }
 
 }
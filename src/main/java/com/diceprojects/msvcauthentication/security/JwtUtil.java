@@ -1,172 +1,295 @@
 package com.diceprojects.msvcauthentication.security;
 
 import com.diceprojects.msvcauthentication.clients.AuthorizationClient;
-import com.diceprojects.msvcauthentication.clients.ConfigurationClient;
-import com.diceprojects.msvcauthentication.exceptions.ErrorHandler;
-import com.diceprojects.msvcauthentication.persistences.models.dtos.ParameterDTO;
+import com.diceprojects.msvcauthentication.exceptions.InvalidTokenException;
+import com.diceprojects.msvcauthentication.jfr.AuthEvent;
+import com.diceprojects.msvcauthentication.jfr.TokenSignEvent;
+import com.diceprojects.msvcauthentication.jfr.TokenVerifyEvent;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.lang.NonNull;
+import com.diceprojects.msvcauthentication.utils.SampledLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.context.ApplicationListener;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.context.event.ContextRefreshedEvent;
-import org.springframework.http.HttpStatus;
+import io.jsonwebtoken.UnsupportedJwtException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.RoleDTO;
 
-import javax.crypto.SecretKey;
-import java.security.SecureRandom;
+import java.nio.ByteBuffer;
 import java.time.Instant;
-import java.util.Date;
 import java.util.Base64;
+import java.util.Date;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Clase utilitaria para manejar operaciones JWT como la generación y validación de tokens.
  */
 @Component
-public class JwtUtil implements ApplicationListener<ContextRefreshedEvent> {
+public class JwtUtil {
 
-    private final ConfigurationClient configurationClient;
-    private final ObjectMapper objectMapper;
-    private final AuthorizationClient authorizationClient;
+    private static final int MAX_TOKEN_LENGTH = 8192;
 
-    private SecretKey key;
-    private String jwtSecret;
-    private int jwtExpirationMs;
+    private final KeyRingManager keyRingManager;
+    private final AuthorizationClient authorizationClient;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenDenylist tokenDenylist;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final boolean selfContainedTokens;
+    private final long claimsMaxAgeMs;
+    private final Map<TokenStatus, Counter> verificationCounters = new EnumMap<>(TokenStatus.class);
+    private final SampledLogger rejectionLogger;
 
     /**
      * Constructor de la clase JwtUtil.
      *
-     * @param configurationClient Cliente de configuración utilizado para obtener y guardar parámetros.
-     * @param objectMapper         Mapeador de objetos utilizado para convertir JSON a objetos Java.
+     * @param keyRingManager       Gestor del anillo de claves de firma.
      * @param authorizationClient  Cliente de autorización utilizado para obtener detalles del usuario.
+     * @param verifiedTokenCache   Caché de tokens ya verificados.
+     * @param tokenDenylist        Lista de tokens revocados.
+     * @param tokenEpochRegistry   Registro de epochs de tokens por usuario.
+     * @param selfContainedTokens  Indica si los tokens emitidos incluyen las claims estructuradas del usuario.
+     * @param claimsMaxAgeMs       Antigüedad máxima (en milisegundos) de las claims autocontenidas antes de
+     *                             volver a consultar al servicio de autorización; {@code 0} desactiva la reconsulta.
+     * @param rejectionLogMax      Número máximo de rechazos de tokens que se registran por intervalo.
+     * @param rejectionLogIntervalMs Duración (en milisegundos) del intervalo de registro de rechazos.
+     * @param meterRegistry        Registro de métricas.
      */
-    public JwtUtil(@Lazy ConfigurationClient configurationClient, ObjectMapper objectMapper, AuthorizationClient authorizationClient) {
-        this.configurationClient = configurationClient;
-        this.objectMapper = objectMapper;
+    public JwtUtil(KeyRingManager keyRingManager, AuthorizationClient authorizationClient,
+                   VerifiedTokenCache verifiedTokenCache, TokenDenylist tokenDenylist,
+                   TokenEpochRegistry tokenEpochRegistry,
+                   @Value("${jwt.claims.selfContained:false}") boolean selfContainedTokens,
+                   @Value("${jwt.claims.maxAgeMs:0}") long claimsMaxAgeMs,
+                   @Value("${jwt.verification.log.maxPerInterval:10}") int rejectionLogMax,
+                   @Value("${jwt.verification.log.intervalMs:10000}") long rejectionLogIntervalMs,
+                   MeterRegistry meterRegistry) {
+        this.keyRingManager = keyRingManager;
         this.authorizationClient = authorizationClient;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.selfContainedTokens = selfContainedTokens;
+        this.claimsMaxAgeMs = claimsMaxAgeMs;
+        this.rejectionLogger = new SampledLogger(LoggerFactory.getLogger(JwtUtil.class), rejectionLogMax, rejectionLogIntervalMs);
+        for (TokenStatus status : TokenStatus.values()) {
+            verificationCounters.put(status, Counter.builder("jwt.verifications")
+                    .tag("result", status.getTag())
+                    .register(meterRegistry));
+        }
     }
 
     /**
-     * Método invocado al inicializar el contexto de la aplicación.
-     * Carga la clave JWT desde la base de datos.
+     * Genera un token JWT para el objeto de autenticación dado.
+     * Si la autenticación ya lleva los detalles del usuario cargados durante la verificación de credenciales,
+     * se reutilizan; en caso contrario se obtienen del servicio de autorización.
      *
-     * @param event Evento de refresco del contexto.
+     * @param authentication el objeto de autenticación que contiene los detalles del usuario.
+     * @return un {@link Mono} que emite el token JWT generado.
      */
-    @Override
-    public void onApplicationEvent(@NonNull ContextRefreshedEvent event) {
-        loadKeyFromDatabase().subscribe();
+    public Mono<String> generateToken(Authentication authentication) {
+        if (authentication.getDetails() instanceof UserDetailsDTO userDetails) {
+            return generateToken(userDetails);
+        }
+        return authorizationClient.getUserByUsername(authentication.getName())
+                .flatMap(this::generateToken);
     }
 
     /**
-     * Carga la clave JWT desde la base de datos o la genera si no existe.
+     * Genera un token JWT para los detalles de usuario dados.
      *
-     * @return Mono<Void> que indica la finalización de la operación.
-     * Si la clave se encuentra en la base de datos, se carga en la aplicación y no se realiza ninguna acción adicional.
-     * Si no se encuentra, se genera una nueva clave, se guarda en la base de datos y se carga en la aplicación.
+     * @param userDetails los detalles del usuario autenticado.
+     * @return un {@link Mono} que emite el token JWT generado.
      */
-    private Mono<Void> loadKeyFromDatabase() {
-        return configurationClient.getParameterByName("jwtSecretKey")
-                .flatMap(parameter -> {
-                    try {
-                        Map<String, String> values = objectMapper.readValue(parameter.getValue(), new TypeReference<Map<String, String>>() {});
-                        this.jwtSecret = values.get("keyApplication");
-                        this.jwtExpirationMs = Integer.parseInt(values.get("timeExpire"));
-                        this.key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret));
-                        return Mono.just(true);
-                    } catch (Exception e) {
-                        return Mono.error(new RuntimeException("Error al leer los valores del parámetro", e));
-                    }
-                })
-                .switchIfEmpty(Mono.just(false))
-                .flatMap(found -> {
-                    if (!found) {
-                        return generateAndSaveNewKey();
-                    } else {
-                        return Mono.empty();
-                    }
-                })
-                .then();
+    public Mono<String> generateToken(UserDetailsDTO userDetails) {
+        return keyRingManager.keyRing().map(keyRing -> {
+            TokenSignEvent event = new TokenSignEvent();
+            event.begin();
+            Instant now = Instant.now();
+            Instant expiryDate = now.plusMillis(keyRing.getExpirationMs());
+            KeyRing.SigningKey signingKey = keyRing.activeKey(now);
+            String roles = userDetails.getRoles().stream()
+                    .map(RoleDTO::getRole)
+                    .collect(Collectors.joining(","));
+
+            String token = Jwts.builder()
+                    .header().keyId(signingKey.kid()).and()
+                    .claims(selfContainedTokens ? UserClaims.fromUser(userDetails) : Map.of())
+                    .claim(UserClaims.ROLES, roles)
+                    .subject(userDetails.getUsername())
+                    .id(newTokenId())
+                    .issuedAt(Date.from(now))
+                    .expiration(Date.from(expiryDate))
+                    .signWith(signingKey.signingKey())
+                    .compact();
+            event.commit(signingKey.kid(), signingKey.algorithm().name(), userDetails.getRoles().size(), token);
+            return token;
+        });
     }
 
     /**
-     * Genera una nueva clave secreta JWT y la guarda en la base de datos.
+     * Verifica un token JWT y devuelve sus claims a partir de un único parseo.
+     * Un token rechazado se emite como un error {@link InvalidTokenException} sin pila de llamadas, con el motivo
+     * del rechazo; para tratar los rechazos como valores, véase {@link #verify(String)}.
      *
-     * @return Mono<Void> que indica la finalización de la operación.
-     * Este método genera una nueva clave HMAC-SHA512, la guarda en la base de datos como un parámetro junto con el tiempo de expiración,
-     * y luego carga la clave en la aplicación para su uso posterior.
+     * @param token el token JWT a verificar.
+     * @return un {@link Mono} que emite las claims verificadas del token, o un error si el token no es válido.
      */
-    private Mono<Void> generateAndSaveNewKey() {
-        byte[] keyBytes = generateSecureKey();
-        this.key = Keys.hmacShaKeyFor(keyBytes);
-        this.jwtSecret = Base64.getEncoder().encodeToString(key.getEncoded());
-        this.jwtExpirationMs = 3600000;
-
-        Map<String, String> values = Map.of(
-                "keyApplication", this.jwtSecret,
-                "timeExpire", String.valueOf(this.jwtExpirationMs)
-        );
+    public Mono<Claims> verifyToken(String token) {
+        return verify(token).flatMap(verification -> verification.isValid()
+                ? Mono.just(verification.claims())
+                : Mono.error(new InvalidTokenException(verification.status())));
+    }
 
-        ParameterDTO parameter = new ParameterDTO();
-        parameter.setParameterName("jwtSecretKey");
-        try {
-            parameter.setValue(objectMapper.writeValueAsString(values));
-        } catch (Exception e) {
-            return Mono.error(new RuntimeException("Error al escribir los valores del parámetro", e));
+    /**
+     * Verifica un token JWT y devuelve un resultado tipado, sin emitir errores por tokens inválidos.
+     * La firma se comprueba una sola vez con el parser preconstruido del anillo de claves vigente, que elige
+     * la clave por la cabecera {@code kid}; si el token ya fue verificado y sigue en la caché, no se realiza ninguna operación criptográfica.
+     * En ambos casos se comprueba que el token no esté revocado ni invalidado por un cierre de todas las sesiones.
+     * Las cadenas que no tienen la forma de un JWS se rechazan antes de intentar parsearlas.
+     * Cada resultado se contabiliza en {@code jwt.verifications} y los rechazos se registran de forma limitada.
+     * Si hay una grabación de JFR activa, cada verificación lenta se registra como {@link TokenVerifyEvent}.
+     *
+     * @param token el token JWT a verificar.
+     * @return un {@link Mono} que emite el resultado de la verificación.
+     */
+    public Mono<TokenVerification> verify(String token) {
+        if (!TokenVerifyEvent.PROBE.isEnabled()) {
+            return verifyUnrecorded(token);
         }
-        parameter.setDescription("JWT secret key and expiration time for signing tokens");
+        return AuthEvent.record(TokenVerifyEvent.PROBE, () -> new TokenVerifyEvent(token != null ? token.length() : 0),
+                Mono.defer(() -> verifyUnrecorded(token)),
+                (event, verification) -> event.setOutcome(verification.status().getTag()));
+    }
 
-        return configurationClient.saveOrUpdateParameter(parameter).then();
+    /**
+     * Verifica un token JWT sin registrar eventos de JFR; véase {@link #verify(String)}.
+     *
+     * @param token el token JWT a verificar.
+     * @return un {@link Mono} que emite el resultado de la verificación.
+     */
+    private Mono<TokenVerification> verifyUnrecorded(String token) {
+        if (!isWellFormed(token)) {
+            return Mono.just(reject(TokenStatus.MALFORMED, null));
+        }
+        Claims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return checkNotRevoked(cached);
+        }
+        return keyRingManager.keyRing()
+                .map(keyRing -> parse(keyRing, token))
+                .flatMap(verification -> verification.isValid()
+                        ? checkNotRevoked(verification.claims())
+                        : Mono.just(verification));
     }
 
     /**
-     * Genera un token JWT para el objeto de autenticación dado.
+     * Parsea y verifica un token con el anillo de claves indicado y guarda el resultado en la caché.
      *
-     * @param authentication el objeto de autenticación que contiene los detalles del usuario.
-     * @return un {@link Mono} que emite el token JWT generado.
+     * @param keyRing el anillo de claves con el que se verifica el token.
+     * @param token   el token JWT.
+     * @return el resultado de la verificación de la firma y la expiración.
      */
-    public Mono<String> generateToken(Authentication authentication) {
-        return ensureKeyLoaded().then(Mono.defer(() -> {
-            String username = authentication.getName();
-            Instant now = Instant.now();
-            Instant expiryDate = now.plusMillis(jwtExpirationMs);
+    private TokenVerification parse(KeyRing keyRing, String token) {
+        try {
+            Jws<Claims> jws = keyRing.parser().parseSignedClaims(token);
+            Claims claims = jws.getPayload();
+            verifiedTokenCache.put(token, claims);
+            KeyRing current = keyRingManager.current();
+            if (current != keyRing && !current.contains(jws.getHeader().getKeyId())) {
+                verifiedTokenCache.invalidate(token);
+            }
+            return TokenVerification.valid(claims);
+        } catch (ExpiredJwtException e) {
+            return reject(TokenStatus.EXPIRED, e);
+        } catch (UnsupportedJwtException | io.jsonwebtoken.security.SecurityException e) {
+            return reject(TokenStatus.BAD_SIGNATURE, e);
+        } catch (JwtException | IllegalArgumentException e) {
+            return reject(TokenStatus.MALFORMED, e);
+        }
+    }
 
-            return authorizationClient.getUserByUsername(username)
-                    .map(userDetails -> {
-                        String roles = userDetails.getRoles().stream()
-                                .map(RoleDTO::getRole)
-                                .collect(Collectors.joining(","));
+    /**
+     * Comprueba que el token no esté revocado ni emitido antes del último cierre de sesiones de su usuario.
+     * En el caso habitual ambas comprobaciones son consultas en memoria y no implican E/S.
+     *
+     * @param claims las claims verificadas del token.
+     * @return un {@link Mono} que emite el resultado de la verificación.
+     */
+    private Mono<TokenVerification> checkNotRevoked(Claims claims) {
+        return tokenEpochRegistry.isSuperseded(claims)
+                .flatMap(superseded -> superseded
+                        ? Mono.just(reject(TokenStatus.SUPERSEDED, null))
+                        : checkDenylist(claims));
+    }
 
-                        return Jwts.builder()
-                                .claim("roles", roles)
-                                .subject(username)
-                                .issuedAt(Date.from(now))
-                                .expiration(Date.from(expiryDate))
-                                .signWith(key)
-                                .compact();
-                    });
-        }));
+    /**
+     * Comprueba que el token no figure en la lista de tokens revocados.
+     *
+     * @param claims las claims verificadas del token.
+     * @return un {@link Mono} que emite el resultado de la verificación.
+     */
+    private Mono<TokenVerification> checkDenylist(Claims claims) {
+        if (!tokenDenylist.mightBeRevoked(claims.getId(), claims.getExpiration())) {
+            return Mono.just(accept(claims));
+        }
+        return tokenDenylist.isRevoked(claims.getId(), claims.getExpiration())
+                .map(revoked -> revoked ? reject(TokenStatus.REVOKED, null) : accept(claims));
     }
 
     /**
-     * Garantiza que la clave JWT esté cargada.
+     * Comprobación previa, sin reservas de memoria, de que la cadena puede ser un JWS compacto:
+     * longitud acotada y exactamente tres segmentos.
      *
-     * @return Mono vacío que indica la finalización de la operación.
+     * @param token la cadena recibida.
+     * @return {@code true} si merece la pena parsearla.
      */
-    private Mono<Void> ensureKeyLoaded() {
-        if (this.key == null) {
-            return loadKeyFromDatabase();
+    private static boolean isWellFormed(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int dots = 0;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                dots++;
+            }
+        }
+        return dots == 2;
+    }
+
+    private TokenVerification accept(Claims claims) {
+        verificationCounters.get(TokenStatus.VALID).increment();
+        return TokenVerification.valid(claims);
+    }
+
+    private TokenVerification reject(TokenStatus status, Exception cause) {
+        verificationCounters.get(status).increment();
+        if (cause != null) {
+            rejectionLogger.warn("Token JWT rechazado ({}): {}", status.getTag(), cause.getMessage());
         } else {
-            return Mono.empty();
+            rejectionLogger.warn("Token JWT rechazado ({})", status.getTag());
         }
+        return TokenVerification.rejected(status);
+    }
+
+    /**
+     * Genera el identificador único ({@code jti}) de un token.
+     *
+     * @return 128 bits aleatorios codificados en Base64 URL.
+     */
+    private static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ByteBuffer buffer = ByteBuffer.allocate(16).putLong(random.nextLong()).putLong(random.nextLong());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
     }
 
     /**
@@ -176,19 +299,7 @@ public class JwtUtil implements ApplicationListener<ContextRefreshedEvent> {
      * @return un {@link Mono} que emite {@code true} si el token es válido, {@code false} de lo contrario.
      */
     public Mono<Boolean> validateToken(String token) {
-        return ensureKeyLoaded().then(Mono.fromCallable(() -> {
-            try {
-                Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseSignedClaims(token);
-
-                return true;
-            } catch (Exception e) {
-                ErrorHandler.handleError("Token JWT inválido", e, HttpStatus.UNAUTHORIZED);
-                return false;
-            }
-        }));
+        return verify(token).map(TokenVerification::isValid);
     }
 
     /**
@@ -209,9 +320,17 @@ public class JwtUtil implements ApplicationListener<ContextRefreshedEvent> {
      * @return las claims extraídas del token.
      */
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
+        return parseClaims(token);
+    }
+
+    /**
+     * Parsea y verifica un token JWT con el parser del anillo de claves vigente.
+     *
+     * @param token el token JWT.
+     * @return las claims verificadas del token.
+     */
+    private Claims parseClaims(String token) {
+        return keyRingManager.current().parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -224,19 +343,50 @@ public class JwtUtil implements ApplicationListener<ContextRefreshedEvent> {
      * @return Un {@link Mono} que emite los detalles del usuario asociado con el token JWT.
      */
     public Mono<UserDetailsDTO> getUserFromToken(String token, AuthorizationClient authorizationClient) {
-        String username = getClaimsFromToken(token).getSubject();
-        return authorizationClient.getUserByUsername(username);
+        return getUserFromClaims(getClaimsFromToken(token), authorizationClient);
+    }
+
+    /**
+     * Obtiene los detalles del usuario a partir de las claims ya verificadas de un token JWT.
+     * Si el token sigue el perfil autocontenido, los detalles se construyen únicamente a partir de las claims;
+     * solo se consulta al servicio de autorización cuando las claims superan la antigüedad máxima configurada
+     * o el token no incluye las claims estructuradas.
+     *
+     * @param claims Las claims verificadas del token.
+     * @param authorizationClient El cliente de autorización utilizado para obtener los detalles del usuario.
+     * @return Un {@link Mono} que emite los detalles del usuario asociado con las claims.
+     */
+    public Mono<UserDetailsDTO> getUserFromClaims(Claims claims, AuthorizationClient authorizationClient) {
+        return getUserFromClaims(claims, authorizationClient::getUserByUsername);
     }
 
     /**
-     * Genera una clave secreta segura para JWT.
+     * Obtiene los detalles del usuario a partir de las claims ya verificadas de un token JWT, usando la
+     * función indicada para las consultas al servicio de autorización (por ejemplo, una que comparta
+     * las consultas de un mismo usuario dentro de un lote).
      *
-     * @return un array de bytes que representa la clave secreta generada.
+     * @param claims     Las claims verificadas del token.
+     * @param userLookup La función que obtiene los detalles de un usuario por su nombre.
+     * @return Un {@link Mono} que emite los detalles del usuario asociado con las claims.
      */
-    private byte[] generateSecureKey() {
-        byte[] keyBytes = new byte[64]; // 512 bits for HMAC-SHA512
-        SecureRandom secureRandom = new SecureRandom();
-        secureRandom.nextBytes(keyBytes);
-        return keyBytes;
+    public Mono<UserDetailsDTO> getUserFromClaims(Claims claims, Function<String, Mono<UserDetailsDTO>> userLookup) {
+        if (UserClaims.isSelfContained(claims) && isFresh(claims)) {
+            return Mono.just(UserClaims.toUserDetails(claims));
+        }
+        return userLookup.apply(claims.getSubject());
+    }
+
+    /**
+     * Indica si las claims de un token son suficientemente recientes para usarse sin reconsulta remota.
+     *
+     * @param claims Las claims verificadas del token.
+     * @return {@code true} si no hay antigüedad máxima configurada o el token se emitió dentro de ella.
+     */
+    private boolean isFresh(Claims claims) {
+        if (claimsMaxAgeMs <= 0) {
+            return true;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null && System.currentTimeMillis() - issuedAt.getTime() <= claimsMaxAgeMs;
     }
 }
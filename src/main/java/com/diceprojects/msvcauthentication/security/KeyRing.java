@@ -0,0 +1,235 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.KeyRingDTO;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.SigningKeyDTO;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Anillo inmutable de claves de firma JWT.
+ * Contiene la clave activa (la más reciente ya activada), las claves pendientes de activación y las claves
+ * que solo se usan para verificar tokens emitidos antes de una rotación. Cada token lleva la cabecera
+ * {@code kid}; el {@link JwtParser} del anillo se construye una sola vez y localiza la clave de verificación
+ * con una búsqueda en un mapa inmutable, sin bloqueos. Los tokens sin {@code kid}, emitidos antes de la
+ * introducción del anillo, se verifican con la clave {@link #LEGACY_KID}.
+ */
+public final class KeyRing {
+
+    /**
+     * Identificador asignado a la clave migrada desde el parámetro {@code jwtSecretKey}.
+     */
+    public static final String LEGACY_KID = "legacy";
+
+    private final Map<String, SigningKey> keys;
+    private final List<SigningKey> byActivation;
+    private final long expirationMs;
+    private final JwtParser parser;
+
+    private KeyRing(Map<String, SigningKey> keys, long expirationMs) {
+        this.keys = Map.copyOf(keys);
+        this.byActivation = keys.values().stream()
+                .sorted(Comparator.comparing(SigningKey::activateAt).reversed())
+                .toList();
+        this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().keyLocator(new KidLocator(this.keys)).build();
+    }
+
+    /**
+     * Crea un anillo con una única clave activa.
+     *
+     * @param key          la clave de firma.
+     * @param expirationMs el tiempo de expiración de los tokens en milisegundos.
+     * @return el nuevo anillo.
+     */
+    public static KeyRing of(SigningKey key, long expirationMs) {
+        return new KeyRing(Map.of(key.kid(), key), expirationMs);
+    }
+
+    /**
+     * Reconstruye un anillo a partir de su representación persistida.
+     *
+     * @param dto el anillo persistido.
+     * @return el anillo reconstruido.
+     * @throws IllegalArgumentException si el anillo no contiene claves.
+     */
+    public static KeyRing fromDTO(KeyRingDTO dto) {
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        for (SigningKeyDTO key : dto.getKeys()) {
+            keys.put(key.getKid(), SigningAlgorithm.fromName(key.getAlgorithm()).decode(key));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("El anillo de claves no contiene claves");
+        }
+        return new KeyRing(keys, dto.getTimeExpire());
+    }
+
+    /**
+     * Obtiene la representación persistible del anillo.
+     *
+     * @return el DTO del anillo.
+     */
+    public KeyRingDTO toDTO() {
+        KeyRingDTO dto = new KeyRingDTO();
+        dto.setTimeExpire(expirationMs);
+        for (SigningKey key : byActivation) {
+            dto.getKeys().add(key.algorithm().encode(key));
+        }
+        return dto;
+    }
+
+    /**
+     * Obtiene la clave con la que se firman los tokens en el instante dado: la de activación más reciente
+     * que ya esté activada. Si ninguna lo está, se usa la más antigua.
+     *
+     * @param now el instante actual.
+     * @return la clave de firma activa.
+     */
+    public SigningKey activeKey(Instant now) {
+        for (SigningKey key : byActivation) {
+            if (!key.activateAt().isAfter(now)) {
+                return key;
+            }
+        }
+        return byActivation.get(byActivation.size() - 1);
+    }
+
+    /**
+     * Indica si hay una clave generada pero todavía no activada.
+     *
+     * @param now el instante actual.
+     * @return {@code true} si existe una clave pendiente de activación.
+     */
+    public boolean hasPendingKey(Instant now) {
+        return byActivation.get(0).activateAt().isAfter(now);
+    }
+
+    /**
+     * Crea un nuevo anillo que añade una clave pendiente de activación y programa el retiro de la clave activa
+     * cuando ya no pueda quedar ningún token vigente firmado con ella.
+     *
+     * @param next       la nueva clave.
+     * @param now        el instante actual.
+     * @param retireGrace margen adicional tras la expiración de los últimos tokens firmados con la clave saliente.
+     * @return el nuevo anillo.
+     */
+    public KeyRing rotate(SigningKey next, Instant now, Duration retireGrace) {
+        Map<String, SigningKey> rotated = new LinkedHashMap<>(keys);
+        SigningKey current = activeKey(now);
+        Instant retireAt = next.activateAt().plusMillis(expirationMs).plus(retireGrace);
+        rotated.put(current.kid(), current.withRetireAt(retireAt));
+        rotated.put(next.kid(), next);
+        return new KeyRing(rotated, expirationMs);
+    }
+
+    /**
+     * Crea un nuevo anillo sin las claves cuyo retiro ya venció.
+     *
+     * @param now el instante actual.
+     * @return el anillo sin las claves retiradas, o este mismo anillo si no hay ninguna que retirar.
+     */
+    public KeyRing withoutRetired(Instant now) {
+        Map<String, SigningKey> remaining = new LinkedHashMap<>();
+        for (SigningKey key : keys.values()) {
+            if (key.retireAt() == null || key.retireAt().isAfter(now)) {
+                remaining.put(key.kid(), key);
+            }
+        }
+        return remaining.size() == keys.size() || remaining.isEmpty() ? this : new KeyRing(remaining, expirationMs);
+    }
+
+    /**
+     * Indica si el anillo contiene una clave.
+     *
+     * @param kid el identificador de la clave.
+     * @return {@code true} si la clave pertenece al anillo.
+     */
+    public boolean contains(String kid) {
+        return keys.containsKey(kid != null ? kid : LEGACY_KID);
+    }
+
+    /**
+     * Obtiene los identificadores de las claves del anillo.
+     *
+     * @return los identificadores de las claves.
+     */
+    public Set<String> kids() {
+        return keys.keySet();
+    }
+
+    /**
+     * Obtiene las claves ordenadas de la más reciente a la más antigua.
+     *
+     * @return las claves del anillo.
+     */
+    public List<SigningKey> keys() {
+        return byActivation;
+    }
+
+    /**
+     * Obtiene el tiempo de expiración de los tokens en milisegundos.
+     *
+     * @return el tiempo de expiración.
+     */
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    /**
+     * Obtiene el parser JWT que verifica con cualquiera de las claves del anillo.
+     *
+     * @return el parser del anillo.
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    /**
+     * Clave de firma del anillo.
+     *
+     * @param kid             el identificador de la clave.
+     * @param algorithm       el algoritmo de firma.
+     * @param signingKey      la clave con la que se firma (secreto HMAC o clave privada).
+     * @param verificationKey la clave con la que se verifica (secreto HMAC o clave pública).
+     * @param activateAt      el instante a partir del cual la clave firma tokens.
+     * @param retireAt        el instante en el que la clave se retira, o {@code null} si no tiene retiro programado.
+     */
+    public record SigningKey(String kid, SigningAlgorithm algorithm, Key signingKey, Key verificationKey,
+                             Instant activateAt, Instant retireAt) {
+
+        SigningKey withRetireAt(Instant retireAt) {
+            return new SigningKey(kid, algorithm, signingKey, verificationKey, activateAt, this.retireAt != null && this.retireAt.isBefore(retireAt)
+                    ? this.retireAt
+                    : retireAt);
+        }
+    }
+
+    /**
+     * Localiza la clave de verificación a partir de la cabecera {@code kid} del token.
+     */
+    private static final class KidLocator extends LocatorAdapter<Key> {
+
+        private final Map<String, SigningKey> keys;
+
+        private KidLocator(Map<String, SigningKey> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            SigningKey key = keys.get(kid != null ? kid : LEGACY_KID);
+            return key != null ? key.verificationKey() : null;
+        }
+    }
+}
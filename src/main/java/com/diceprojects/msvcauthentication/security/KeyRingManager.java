@@ -0,0 +1,384 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.clients.ConfigurationClient;
+import com.diceprojects.msvcauthentication.jfr.AuthEvent;
+import com.diceprojects.msvcauthentication.jfr.KeyRingEvent;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.KeyRingDTO;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.ParameterDTO;
+import com.diceprojects.msvcauthentication.utils.ParameterSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Gestiona el ciclo de vida del {@link KeyRing} de firma JWT.
+ * <ul>
+ *     <li>Arranque: un único "cargar o generar" compartido por todos los suscriptores. Si no existe el parámetro
+ *         {@code jwtKeyRing} pero sí el antiguo {@code jwtSecretKey}, la clave se migra al anillo con el
+ *         identificador {@link KeyRing#LEGACY_KID}, de modo que los tokens ya emitidos siguen siendo válidos.</li>
+ *     <li>Rotación: la nueva clave se publica primero solo para verificación y se activa tras
+ *         {@code jwt.keys.activationDelayMs}, tiempo suficiente para que el resto de instancias la conozca.
+ *         La clave saliente se retira cuando han expirado todos los tokens firmados con ella.</li>
+ *     <li>Mantenimiento periódico: adopta los cambios del anillo realizados por otras instancias, retira las
+ *         claves vencidas y rota automáticamente si {@code jwt.keys.rotationIntervalMs} es mayor que cero o si
+ *         la clave activa no usa el algoritmo de {@code jwt.keys.algorithm}; así, cambiar de HS512 a un
+ *         algoritmo asimétrico no invalida los tokens ya emitidos.</li>
+ * </ul>
+ * El anillo vigente se publica en un único campo volátil; las verificaciones no toman ningún bloqueo.
+ * La caché de tokens verificados solo se vacía cuando una clave sale del anillo.
+ */
+@Component
+public class KeyRingManager implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyRingManager.class);
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final String KEY_RING_PARAMETER = "jwtKeyRing";
+    private static final String LEGACY_KEY_PARAMETER = "jwtSecretKey";
+    private static final long DEFAULT_EXPIRATION_MS = 3600000;
+
+    private final ConfigurationClient configurationClient;
+    private final ParameterSnapshotService parameterSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SigningAlgorithm algorithm;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration retireGrace;
+    private final Duration maintenanceInterval;
+    private final Timer keyBootstrapTimer;
+    private final Mono<KeyRing> keyBootstrap;
+
+    private volatile KeyRing keyRing;
+    private volatile String storedValue;
+    private Disposable maintenance;
+
+    /**
+     * Constructor de KeyRingManager.
+     *
+     * @param configurationClient      cliente de configuración utilizado para guardar el anillo.
+     * @param parameterSnapshotService instantánea en memoria de los parámetros de configuración.
+     * @param objectMapper             mapeador de objetos utilizado para serializar el anillo.
+     * @param verifiedTokenCache       caché de tokens ya verificados.
+     * @param algorithm                algoritmo de firma de las nuevas claves ({@code HS512}, {@code ES256} o {@code EdDSA}).
+     * @param rotationIntervalMs       antigüedad (en milisegundos) de la clave activa a partir de la cual se rota
+     *                                 automáticamente; {@code 0} desactiva la rotación automática.
+     * @param activationDelayMs        tiempo (en milisegundos) entre la publicación de una nueva clave y su activación.
+     * @param retireGraceMs            margen (en milisegundos) tras la expiración de los últimos tokens de una clave
+     *                                 antes de retirarla.
+     * @param maintenanceIntervalMs    intervalo (en milisegundos) entre tareas de mantenimiento del anillo.
+     * @param meterRegistry            registro de métricas donde se publica el tiempo de carga de la clave.
+     */
+    public KeyRingManager(@Lazy ConfigurationClient configurationClient, ParameterSnapshotService parameterSnapshotService,
+                          ObjectMapper objectMapper, VerifiedTokenCache verifiedTokenCache,
+                          @Value("${jwt.keys.algorithm:HS512}") SigningAlgorithm algorithm,
+                          @Value("${jwt.keys.rotationIntervalMs:0}") long rotationIntervalMs,
+                          @Value("${jwt.keys.activationDelayMs:120000}") long activationDelayMs,
+                          @Value("${jwt.keys.retireGraceMs:60000}") long retireGraceMs,
+                          @Value("${jwt.keys.maintenanceIntervalMs:30000}") long maintenanceIntervalMs,
+                          MeterRegistry meterRegistry) {
+        this.configurationClient = configurationClient;
+        this.parameterSnapshotService = parameterSnapshotService;
+        this.objectMapper = objectMapper;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.algorithm = algorithm;
+        this.rotationInterval = Duration.ofMillis(rotationIntervalMs);
+        this.activationDelay = Duration.ofMillis(activationDelayMs);
+        this.retireGrace = Duration.ofMillis(retireGraceMs);
+        this.maintenanceInterval = Duration.ofMillis(maintenanceIntervalMs);
+        this.keyBootstrapTimer = Timer.builder("jwt.key.bootstrap")
+                .description("Tiempo hasta disponer de la clave de firma")
+                .register(meterRegistry);
+        this.keyBootstrap = createKeyBootstrap();
+    }
+
+    /**
+     * Método invocado al inicializar el contexto de la aplicación.
+     * Inicia la fase de arranque del anillo y el mantenimiento periódico sin bloquear el hilo que publica el evento.
+     *
+     * @param event Evento de refresco del contexto.
+     */
+    @Override
+    public void onApplicationEvent(@NonNull ContextRefreshedEvent event) {
+        keyBootstrap.subscribe(
+                ring -> logger.info("Anillo de claves JWT disponible con {} clave(s)", ring.kids().size()),
+                e -> logger.error("No se pudo cargar el anillo de claves JWT", e));
+        if (maintenance == null) {
+            maintenance = Flux.interval(maintenanceInterval, maintenanceInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> maintain()
+                            .onErrorResume(e -> {
+                                logger.warn("Fallo en el mantenimiento del anillo de claves JWT: {}", e.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe();
+        }
+    }
+
+    /**
+     * Detiene el mantenimiento periódico.
+     */
+    @PreDestroy
+    public void stop() {
+        if (maintenance != null) {
+            maintenance.dispose();
+        }
+    }
+
+    /**
+     * Indica si el anillo ya está cargado y publicado.
+     *
+     * @return {@code true} si hay claves listas para firmar y verificar tokens.
+     */
+    public boolean isReady() {
+        return keyRing != null;
+    }
+
+    /**
+     * Obtiene el anillo vigente, esperando a la fase de arranque si aún no está disponible.
+     *
+     * @return un {@link Mono} que emite el anillo publicado.
+     */
+    public Mono<KeyRing> keyRing() {
+        KeyRing current = this.keyRing;
+        return current != null ? Mono.just(current) : keyBootstrap;
+    }
+
+    /**
+     * Obtiene el anillo vigente sin esperar.
+     *
+     * @return el anillo publicado, o {@code null} si aún no se cargó.
+     */
+    public KeyRing current() {
+        return keyRing;
+    }
+
+    /**
+     * Rota la clave de firma: añade una nueva clave que se activa tras el retardo de activación
+     * y programa el retiro de la clave activa.
+     *
+     * @return un {@link Mono} que emite el anillo rotado una vez guardado.
+     */
+    public Mono<KeyRing> rotate() {
+        return recordEvent("rotate", keyRing()
+                .flatMap(current -> parameterSnapshotService.refresh()
+                        .then(Mono.fromCallable(() -> adoptStored(current)))
+                        .onErrorReturn(current))
+                .flatMap(current -> newSigningKey(Instant.now().plus(activationDelay))
+                        .map(next -> current.rotate(next, Instant.now(), retireGrace)))
+                .flatMap(this::save)
+                .doOnNext(this::publish)
+                .doOnNext(ring -> logger.info("Clave de firma JWT rotada; nueva clave {}", ring.keys().get(0).kid())));
+    }
+
+    /**
+     * Construye la fase de arranque del anillo: un único "cargar o generar" compartido por todos los
+     * suscriptores. Los errores no se memorizan: se reintenta con espera exponencial hasta obtener el anillo.
+     *
+     * @return un {@link Mono} compartido que emite el anillo publicado.
+     */
+    private Mono<KeyRing> createKeyBootstrap() {
+        return Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start();
+                    return recordEvent("bootstrap", loadOrCreate())
+                            .doOnNext(ring -> {
+                                publish(ring);
+                                sample.stop(keyBootstrapTimer);
+                            });
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(500))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> logger.warn("Reintentando la carga del anillo de claves JWT: {}",
+                                signal.failure().getMessage())))
+                .cache();
+    }
+
+    /**
+     * Registra una operación sobre el anillo como {@link KeyRingEvent} si hay una grabación de JFR activa.
+     *
+     * @param operation la operación: {@code bootstrap} o {@code rotate}.
+     * @param source    la operación.
+     * @return la operación instrumentada.
+     */
+    private static Mono<KeyRing> recordEvent(String operation, Mono<KeyRing> source) {
+        return AuthEvent.record(KeyRingEvent.PROBE, () -> new KeyRingEvent(operation), source,
+                (event, ring) -> event.setRing(ring.kids().size(), ring.keys().get(0).algorithm().name()));
+    }
+
+    /**
+     * Carga el anillo guardado, lo migra desde la clave antigua o genera uno nuevo, en ese orden.
+     *
+     * @return un {@link Mono} que emite el anillo cargado.
+     */
+    private Mono<KeyRing> loadOrCreate() {
+        return parameterSnapshotService.getValue(KEY_RING_PARAMETER)
+                .map(value -> {
+                    KeyRing ring = parseKeyRing(value);
+                    storedValue = value;
+                    return ring;
+                })
+                .switchIfEmpty(Mono.defer(this::migrateLegacyKey))
+                .switchIfEmpty(Mono.defer(() -> newSigningKey(Instant.now())
+                        .map(key -> KeyRing.of(key, DEFAULT_EXPIRATION_MS))
+                        .flatMap(this::save)));
+    }
+
+    /**
+     * Convierte la clave del parámetro {@code jwtSecretKey} en un anillo de una sola clave y lo guarda.
+     *
+     * @return un {@link Mono} que emite el anillo migrado, o vacío si no existe la clave antigua.
+     */
+    private Mono<KeyRing> migrateLegacyKey() {
+        return parameterSnapshotService.getValues(LEGACY_KEY_PARAMETER)
+                .map(values -> KeyRing.of(
+                        legacyKey(Keys.hmacShaKeyFor(Base64.getDecoder().decode(values.get("keyApplication")))),
+                        Long.parseLong(values.get("timeExpire"))))
+                .flatMap(this::save)
+                .doOnNext(ring -> logger.info("Clave JWT migrada desde el parámetro {} al anillo de claves", LEGACY_KEY_PARAMETER));
+    }
+
+    private static KeyRing.SigningKey legacyKey(SecretKey secret) {
+        return new KeyRing.SigningKey(KeyRing.LEGACY_KID, SigningAlgorithm.HS512, secret, secret, Instant.EPOCH, null);
+    }
+
+    /**
+     * Tarea de mantenimiento: adopta el anillo guardado por otras instancias, retira las claves vencidas
+     * y rota si la clave activa superó el intervalo de rotación o usa un algoritmo distinto del configurado.
+     *
+     * @return un {@link Mono} que completa al terminar el mantenimiento.
+     */
+    private Mono<Void> maintain() {
+        return Mono.defer(() -> {
+            KeyRing current = keyRing;
+            if (current == null) {
+                return Mono.empty();
+            }
+            Instant now = Instant.now();
+            KeyRing adopted = adoptStored(current);
+            KeyRing pruned = adopted.withoutRetired(now);
+            if (isRotationDue(pruned, now)) {
+                publish(pruned);
+                return rotate().then();
+            }
+            if (pruned != adopted) {
+                publish(pruned);
+                return save(pruned).then();
+            }
+            publish(adopted);
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Devuelve el anillo guardado en la instantánea de parámetros si cambió desde la última vez que se aplicó.
+     *
+     * @param current el anillo vigente.
+     * @return el anillo guardado, o el vigente si no hay cambios o el guardado no es válido.
+     */
+    private KeyRing adoptStored(KeyRing current) {
+        String value = parameterSnapshotService.current().get(KEY_RING_PARAMETER)
+                .map(ParameterDTO::getValue)
+                .orElse(null);
+        if (value == null || Objects.equals(value, storedValue)) {
+            return current;
+        }
+        try {
+            KeyRing stored = parseKeyRing(value);
+            storedValue = value;
+            return stored;
+        } catch (RuntimeException e) {
+            logger.warn("Se ignora el anillo de claves JWT guardado: {}", e.getMessage());
+            return current;
+        }
+    }
+
+    private boolean isRotationDue(KeyRing ring, Instant now) {
+        if (ring.hasPendingKey(now)) {
+            return false;
+        }
+        KeyRing.SigningKey active = ring.activeKey(now);
+        return active.algorithm() != algorithm
+                || (!rotationInterval.isZero() && active.activateAt().plus(rotationInterval).isBefore(now));
+    }
+
+    /**
+     * Publica un anillo. Si alguna clave del anillo anterior ya no forma parte del nuevo,
+     * se vacía la caché de tokens verificados para que los tokens firmados con ella dejen de aceptarse.
+     *
+     * @param next el anillo a publicar.
+     */
+    private void publish(KeyRing next) {
+        KeyRing previous = this.keyRing;
+        this.keyRing = next;
+        if (previous != null && previous != next && !next.kids().containsAll(previous.kids())) {
+            verifiedTokenCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Guarda el anillo en el parámetro {@code jwtKeyRing}.
+     *
+     * @param ring el anillo a guardar.
+     * @return un {@link Mono} que emite el anillo una vez guardado.
+     */
+    private Mono<KeyRing> save(KeyRing ring) {
+        String value;
+        try {
+            value = objectMapper.writeValueAsString(ring.toDTO());
+        } catch (Exception e) {
+            return Mono.error(new RuntimeException("Error al escribir los valores del parámetro", e));
+        }
+        ParameterDTO parameter = new ParameterDTO();
+        parameter.setParameterName(KEY_RING_PARAMETER);
+        parameter.setValue(value);
+        parameter.setDescription("JWT signing key ring and expiration time for signing tokens");
+
+        return configurationClient.saveOrUpdateParameter(parameter)
+                .doOnSuccess(saved -> storedValue = value)
+                .thenReturn(ring);
+    }
+
+    private KeyRing parseKeyRing(String value) {
+        try {
+            return KeyRing.fromDTO(objectMapper.readValue(value, KeyRingDTO.class));
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al leer los valores del parámetro " + KEY_RING_PARAMETER, e);
+        }
+    }
+
+    /**
+     * Genera una nueva clave con el algoritmo configurado fuera del event loop.
+     *
+     * @param activateAt el instante a partir del cual la clave firma tokens.
+     * @return un {@link Mono} que emite la nueva clave.
+     */
+    private Mono<KeyRing.SigningKey> newSigningKey(Instant activateAt) {
+        return Mono.fromCallable(() -> {
+                    byte[] kidBytes = new byte[9];
+                    SECURE_RANDOM.nextBytes(kidBytes);
+                    return algorithm.generate(Base64.getUrlEncoder().withoutPadding().encodeToString(kidBytes), activateAt);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,131 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Planificador acotado para operaciones de hash de contraseñas (BCrypt) intensivas en CPU.
+ * Ejecuta las tareas en un grupo fijo de hilos dedicados con una cola de capacidad limitada,
+ * evitando que la verificación de contraseñas bloquee los hilos del event loop de reactor-netty.
+ * Cuando la cola está llena, la tarea se rechaza inmediatamente con una {@link ServiceOverloadedException}.
+ * El resultado se entrega en el planificador {@code parallel}: el resto de la cadena (firma del token, llamadas
+ * remotas) no ocupa los hilos dedicados, cuyo número es el que limita la concurrencia del hash.
+ */
+@Component
+public class PasswordHashingScheduler {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructor de PasswordHashingScheduler.
+     *
+     * @param threads       número de hilos dedicados; si es menor o igual a cero se usa el número de procesadores.
+     * @param queueCapacity capacidad máxima de la cola de tareas pendientes.
+     * @param meterRegistry registro de métricas donde se publican la profundidad de cola y los tiempos de espera.
+     */
+    public PasswordHashingScheduler(@Value("${auth.hashing.threads:0}") int threads,
+                                    @Value("${auth.hashing.queueCapacity:256}") int queueCapacity,
+                                    MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Tareas de hash de contraseñas en espera")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Tareas de hash de contraseñas en ejecución")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.hashing.wait")
+                .description("Tiempo de espera en cola antes de ejecutar el hash")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.executionTimer = Timer.builder("auth.hashing.execution")
+                .description("Tiempo de ejecución del hash de contraseñas")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Tareas rechazadas por cola llena")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una tarea de hash en el grupo de hilos dedicado y emite su resultado en el planificador
+     * {@code parallel}, liberando el hilo dedicado en cuanto termina el hash.
+     *
+     * @param task la tarea a ejecutar, por ejemplo {@code passwordEncoder.matches(...)}.
+     * @param <T>  el tipo del resultado de la tarea.
+     * @return un {@link Mono} que emite el resultado de la tarea, o un error {@link ServiceOverloadedException}
+     *         si la cola está llena.
+     */
+    public <T> Mono<T> submit(Callable<T> task) {
+        return Mono.<T>create(sink -> {
+            long enqueuedAt = System.nanoTime();
+            Future<?> future;
+            try {
+                future = executor.submit(() -> {
+                    long startedAt = System.nanoTime();
+                    waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        sink.success(task.call());
+                    } catch (Throwable e) {
+                        sink.error(e);
+                    } finally {
+                        executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                sink.error(new ServiceOverloadedException("Servicio de autenticación sobrecargado, reintente más tarde"));
+                return;
+            }
+            sink.onCancel(() -> {
+                if (future.cancel(false)) {
+                    executor.remove((Runnable) future);
+                }
+            });
+        }).publishOn(Schedulers.parallel());
+    }
+
+    /**
+     * Detiene el grupo de hilos al cerrar el contexto de la aplicación.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Fábrica de hilos daemon con nombre identificable para los perfiles y volcados de hilos.
+     */
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
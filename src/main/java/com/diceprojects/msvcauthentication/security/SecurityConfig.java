@@ -23,17 +23,14 @@ import static com.diceprojects.msvcauthentication.utils.AuthWhitelist.AUTH_WHITE
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
-    private final CustomReactiveAuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
 
     /**
      * Constructor de la clase SecurityConfig.
      *
-     * @param authenticationManager Gestor de autenticación reactiva personalizada.
-     * @param jwtUtil                Utilidad JWT para la generación y validación de tokens.
+     * @param jwtUtil Utilidad JWT para la generación y validación de tokens.
      */
-    public SecurityConfig(CustomReactiveAuthenticationManager authenticationManager, JwtUtil jwtUtil) {
-        this.authenticationManager = authenticationManager;
+    public SecurityConfig(JwtUtil jwtUtil) {
         this.jwtUtil = jwtUtil;
     }
 
@@ -62,13 +59,24 @@ public class SecurityConfig {
 
     /**
      * Configura un filtro de autenticación basado en JWT.
+     * El filtro usa un {@link JwtReactiveAuthenticationManager} propio, que construye la autenticación a partir
+     * de las claims verificadas; el {@link CustomReactiveAuthenticationManager} queda reservado al inicio de sesión
+     * con usuario y contraseña. No se declara como bean para no competir con él como gestor de autenticación
+     * por defecto.
+     * <p>
+     * Un token rechazado (caducado, revocado, con firma inválida...) no corta la solicitud: continúa sin autenticar.
+     * Así las rutas públicas, como el inicio de sesión o la renovación, siguen llegando al controlador aunque el
+     * cliente reenvíe un token caducado, y {@code /validate} responde con su propio motivo de rechazo; las rutas
+     * protegidas las rechaza después la regla de autorización.
      *
      * @return Un {@link AuthenticationWebFilter} que maneja la autenticación con JWT.
      */
     @Bean
     public AuthenticationWebFilter jwtAuthenticationFilter() {
-        AuthenticationWebFilter authenticationWebFilter = new AuthenticationWebFilter(authenticationManager);
+        AuthenticationWebFilter authenticationWebFilter = new AuthenticationWebFilter(new JwtReactiveAuthenticationManager(jwtUtil));
         authenticationWebFilter.setServerAuthenticationConverter(jwtServerAuthenticationConverter());
+        authenticationWebFilter.setAuthenticationFailureHandler((webFilterExchange, exception) ->
+                webFilterExchange.getChain().filter(webFilterExchange.getExchange()));
         return authenticationWebFilter;
     }
 
@@ -79,7 +87,7 @@ public class SecurityConfig {
      */
     @Bean
     public ServerAuthenticationConverter jwtServerAuthenticationConverter() {
-        return new JwtServerAuthenticationConverter(jwtUtil);
+        return new JwtServerAuthenticationConverter();
     }
 
     /**
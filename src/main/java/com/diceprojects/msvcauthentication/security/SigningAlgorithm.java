@@ -0,0 +1,139 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.SigningKeyDTO;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Algoritmos de firma soportados por el anillo de claves.
+ * {@link #HS512} usa un secreto compartido que no puede distribuirse; {@link #ES256} y {@link #EdDSA} (Ed25519)
+ * firman con una clave privada y permiten que otros servicios verifiquen los tokens localmente con la clave
+ * pública publicada en el JWKS.
+ */
+public enum SigningAlgorithm {
+
+    /**
+     * HMAC-SHA512 con secreto compartido.
+     */
+    HS512(null),
+
+    /**
+     * ECDSA sobre la curva P-256 con SHA-256.
+     */
+    ES256("EC"),
+
+    /**
+     * EdDSA sobre la curva Ed25519.
+     */
+    EdDSA("Ed25519");
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final String keyAlgorithm;
+
+    SigningAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    /**
+     * Indica si el algoritmo es asimétrico y, por tanto, su clave de verificación puede publicarse.
+     *
+     * @return {@code true} para {@link #ES256} y {@link #EdDSA}.
+     */
+    public boolean isAsymmetric() {
+        return keyAlgorithm != null;
+    }
+
+    /**
+     * Genera una nueva clave de firma con este algoritmo.
+     * La generación consume entropía y puede bloquear: no debe invocarse desde el event loop.
+     *
+     * @param kid        el identificador de la clave.
+     * @param activateAt el instante a partir del cual la clave firma tokens.
+     * @return la nueva clave.
+     */
+    public KeyRing.SigningKey generate(String kid, Instant activateAt) {
+        if (!isAsymmetric()) {
+            byte[] keyBytes = new byte[64]; // 512 bits for HMAC-SHA512
+            SECURE_RANDOM.nextBytes(keyBytes);
+            SecretKey secret = Keys.hmacShaKeyFor(keyBytes);
+            return new KeyRing.SigningKey(kid, this, secret, secret, activateAt, null);
+        }
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+            if (this == ES256) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"), SECURE_RANDOM);
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            return new KeyRing.SigningKey(kid, this, keyPair.getPrivate(), keyPair.getPublic(), activateAt, null);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo generar una clave " + name(), e);
+        }
+    }
+
+    /**
+     * Reconstruye una clave a partir de su representación persistida.
+     *
+     * @param dto la clave persistida.
+     * @return la clave reconstruida.
+     */
+    public KeyRing.SigningKey decode(SigningKeyDTO dto) {
+        byte[] secretBytes = Base64.getDecoder().decode(dto.getSecret());
+        Instant activateAt = Instant.ofEpochMilli(dto.getActivateAt());
+        Instant retireAt = dto.getRetireAt() != null ? Instant.ofEpochMilli(dto.getRetireAt()) : null;
+        if (!isAsymmetric()) {
+            SecretKey secret = Keys.hmacShaKeyFor(secretBytes);
+            return new KeyRing.SigningKey(dto.getKid(), this, secret, secret, activateAt, retireAt);
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm);
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(secretBytes));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(dto.getPublicKey())));
+            return new KeyRing.SigningKey(dto.getKid(), this, privateKey, publicKey, activateAt, retireAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Clave " + name() + " inválida: " + dto.getKid(), e);
+        }
+    }
+
+    /**
+     * Obtiene la representación persistible de una clave de este algoritmo.
+     *
+     * @param key la clave.
+     * @return el DTO de la clave.
+     */
+    public SigningKeyDTO encode(KeyRing.SigningKey key) {
+        SigningKeyDTO dto = new SigningKeyDTO();
+        dto.setKid(key.kid());
+        dto.setAlgorithm(name());
+        dto.setSecret(Base64.getEncoder().encodeToString(key.signingKey().getEncoded()));
+        if (isAsymmetric()) {
+            dto.setPublicKey(Base64.getEncoder().encodeToString(key.verificationKey().getEncoded()));
+        }
+        dto.setActivateAt(key.activateAt().toEpochMilli());
+        dto.setRetireAt(key.retireAt() != null ? key.retireAt().toEpochMilli() : null);
+        return dto;
+    }
+
+    /**
+     * Obtiene el algoritmo a partir de su nombre; las claves guardadas antes de existir este campo son HMAC.
+     *
+     * @param name el nombre del algoritmo, o {@code null}.
+     * @return el algoritmo correspondiente.
+     */
+    public static SigningAlgorithm fromName(String name) {
+        return name != null ? valueOf(name) : HS512;
+    }
+}
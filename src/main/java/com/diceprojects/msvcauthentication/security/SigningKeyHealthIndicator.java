@@ -0,0 +1,38 @@
+package com.diceprojects.msvcauthentication.security;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Indicador de salud de la clave de firma JWT.
+ * Permanece fuera de servicio hasta que {@link KeyRingManager} termina de cargar o generar el anillo de claves, de modo que,
+ * incluido en el grupo de readiness, el servicio no recibe tráfico mientras no puede firmar ni verificar tokens.
+ */
+@Component
+public class SigningKeyHealthIndicator implements ReactiveHealthIndicator {
+
+    private final KeyRingManager keyRingManager;
+
+    /**
+     * Constructor de SigningKeyHealthIndicator.
+     *
+     * @param keyRingManager el gestor del anillo de claves de firma.
+     */
+    public SigningKeyHealthIndicator(KeyRingManager keyRingManager) {
+        this.keyRingManager = keyRingManager;
+    }
+
+    /**
+     * Informa del estado de la clave de firma.
+     *
+     * @return {@code UP} si la clave está cargada, {@code OUT_OF_SERVICE} en caso contrario.
+     */
+    @Override
+    public Mono<Health> health() {
+        return Mono.just(keyRingManager.isReady()
+                ? Health.up().build()
+                : Health.outOfService().withDetail("reason", "Clave de firma JWT no cargada").build());
+    }
+}
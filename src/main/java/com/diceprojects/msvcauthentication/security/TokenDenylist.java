@@ -0,0 +1,256 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.persistences.models.entities.RevokedToken;
+import com.diceprojects.msvcauthentication.persistences.repositories.RevokedTokenRepository;
+import com.diceprojects.msvcauthentication.utils.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Lista de tokens revocados (por su claim {@code jti}) antes de su expiración.
+ * <p>
+ * Las revocaciones se guardan en MongoDB con un índice TTL sobre la expiración del token. En memoria se
+ * mantienen filtros de Bloom de tamaño fijo agrupados por franjas de expiración: la franja de un token se
+ * deduce de su {@code exp}, de modo que la consulta toca un único filtro, y una franja entera se descarta
+ * cuando todos sus tokens han expirado. La memoria queda acotada por el número de franjas vivas, no por
+ * el número de revocaciones; si una franja recibe más revocaciones de las previstas solo aumentan los
+ * falsos positivos. Un positivo del filtro se confirma con una caché acotada de resultados y, en su defecto,
+ * con una consulta por clave primaria en MongoDB.
+ * <p>
+ * Cada instancia incorpora las revocaciones de las demás con una sincronización incremental periódica.
+ * Hasta que la primera sincronización termina, los filtros aún no reflejan las revocaciones existentes,
+ * por lo que cada token se confirma en MongoDB.
+ */
+@Component
+public class TokenDenylist implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+    private static final Mono<Boolean> NOT_REVOKED = Mono.just(false);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long bucketMs;
+    private final long expectedPerBucket;
+    private final double falsePositiveRate;
+    private final Duration syncInterval;
+    private final ConcurrentNavigableMap<Long, BloomFilter> buckets = new ConcurrentSkipListMap<>();
+    private final Cache<String, Boolean> confirmations;
+
+    private final Counter negativeCounter;
+    private final Counter confirmedCounter;
+    private final Counter falsePositiveCounter;
+
+    private volatile Instant lastSync;
+    private Disposable syncLoop;
+
+    /**
+     * Constructor de TokenDenylist.
+     *
+     * @param revokedTokenRepository  el repositorio de tokens revocados.
+     * @param mongoTemplate           la plantilla reactiva de MongoDB, usada para crear los índices.
+     * @param enabled                 indica si se comprueban las revocaciones.
+     * @param bucketMs                anchura (en milisegundos) de cada franja de expiración.
+     * @param expectedPerBucket       revocaciones previstas por franja, usadas para dimensionar cada filtro.
+     * @param falsePositiveRate       tasa de falsos positivos de cada filtro con las revocaciones previstas.
+     * @param syncIntervalMs          intervalo (en milisegundos) de la sincronización incremental.
+     * @param confirmationCacheSize   número máximo de confirmaciones que se mantienen en memoria.
+     * @param meterRegistry           registro de métricas.
+     */
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository, ReactiveMongoTemplate mongoTemplate,
+                         @Value("${auth.denylist.enabled:true}") boolean enabled,
+                         @Value("${auth.denylist.bucketMs:900000}") long bucketMs,
+                         @Value("${auth.denylist.expectedPerBucket:100000}") long expectedPerBucket,
+                         @Value("${auth.denylist.falsePositiveRate:0.01}") double falsePositiveRate,
+                         @Value("${auth.denylist.syncIntervalMs:5000}") long syncIntervalMs,
+                         @Value("${auth.denylist.confirmationCacheSize:10000}") long confirmationCacheSize,
+                         MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.bucketMs = bucketMs;
+        this.expectedPerBucket = expectedPerBucket;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncInterval = Duration.ofMillis(syncIntervalMs);
+        this.confirmations = Caffeine.newBuilder()
+                .maximumSize(confirmationCacheSize)
+                .expireAfterWrite(Duration.ofMillis(bucketMs))
+                .build();
+
+        Gauge.builder("auth.denylist.buckets", buckets, ConcurrentNavigableMap::size)
+                .description("Franjas de expiración con revocaciones vigentes")
+                .register(meterRegistry);
+        Gauge.builder("auth.denylist.memory", buckets,
+                        map -> map.values().stream().mapToLong(BloomFilter::sizeInBytes).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.negativeCounter = Counter.builder("auth.denylist.checks")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.confirmedCounter = Counter.builder("auth.denylist.checks")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("auth.denylist.checks")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crea los índices de la colección e inicia la sincronización periódica.
+     *
+     * @param event Evento de aplicación lista.
+     */
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
+        if (!enabled || syncLoop != null) {
+            return;
+        }
+        mongoTemplate.indexOps(RevokedToken.class)
+                .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO))
+                .then(mongoTemplate.indexOps(RevokedToken.class).ensureIndex(new Index().on("revokedAt", Sort.Direction.ASC)))
+                .subscribe(
+                        name -> logger.debug("Índices de tokens revocados verificados"),
+                        e -> logger.warn("No se pudieron crear los índices de tokens revocados: {}", e.getMessage()));
+        syncLoop = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync()
+                        .onErrorResume(e -> {
+                            logger.warn("No se pudo sincronizar la lista de tokens revocados: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Detiene la sincronización periódica.
+     */
+    @PreDestroy
+    public void stop() {
+        if (syncLoop != null) {
+            syncLoop.dispose();
+        }
+    }
+
+    /**
+     * Comprobación rápida, sin E/S ni reservas de memoria. Antes de la primera sincronización siempre
+     * indica que hay que confirmar.
+     *
+     * @param jti       el identificador del token.
+     * @param expiresAt la expiración del token.
+     * @return {@code false} si el token seguro que no está revocado; {@code true} si hay que confirmarlo.
+     */
+    public boolean mightBeRevoked(String jti, Date expiresAt) {
+        if (!enabled || jti == null || expiresAt == null) {
+            return false;
+        }
+        if (lastSync == null) {
+            return true;
+        }
+        BloomFilter filter = buckets.get(expiresAt.getTime() / bucketMs);
+        return filter != null && filter.mightContain(jti);
+    }
+
+    /**
+     * Indica si un token está revocado. Solo realiza E/S cuando el filtro devuelve un positivo (o aún no hubo
+     * ninguna sincronización) y el token no está en la caché de confirmaciones. Si la confirmación falla,
+     * el token se considera revocado.
+     *
+     * @param jti       el identificador del token.
+     * @param expiresAt la expiración del token.
+     * @return un {@link Mono} que emite {@code true} si el token está revocado.
+     */
+    public Mono<Boolean> isRevoked(String jti, Date expiresAt) {
+        if (!mightBeRevoked(jti, expiresAt)) {
+            negativeCounter.increment();
+            return NOT_REVOKED;
+        }
+        Boolean known = confirmations.getIfPresent(jti);
+        if (known != null) {
+            (known ? confirmedCounter : falsePositiveCounter).increment();
+            return Mono.just(known);
+        }
+        return revokedTokenRepository.existsById(jti)
+                .doOnNext(revoked -> {
+                    confirmations.put(jti, revoked);
+                    (revoked ? confirmedCounter : falsePositiveCounter).increment();
+                })
+                .onErrorResume(e -> {
+                    logger.warn("No se pudo confirmar la revocación del token {}: {}", jti, e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * Revoca un token hasta su expiración. La revocación se aplica de inmediato en esta instancia
+     * y llega al resto con la siguiente sincronización.
+     *
+     * @param jti       el identificador del token.
+     * @param expiresAt la expiración del token.
+     * @return un {@link Mono} que completa cuando la revocación se ha guardado.
+     */
+    public Mono<Void> revoke(String jti, Date expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(jti);
+        revokedToken.setExpiresAt(expiresAt);
+        revokedToken.setRevokedAt(new Date());
+        return revokedTokenRepository.save(revokedToken)
+                .doOnNext(this::add)
+                .then();
+    }
+
+    /**
+     * Incorpora las revocaciones nuevas: al arrancar, todas las vigentes; después, las registradas desde la
+     * última sincronización (con un margen para tolerar diferencias de reloj entre instancias).
+     * Al terminar descarta las franjas cuyos tokens ya han expirado.
+     *
+     * @return un {@link Mono} que completa al terminar la sincronización.
+     */
+    Mono<Void> sync() {
+        return Mono.defer(() -> {
+            Instant started = Instant.now();
+            Instant since = lastSync;
+            Flux<RevokedToken> changes = since == null
+                    ? revokedTokenRepository.findByExpiresAtAfter(Date.from(started))
+                    : revokedTokenRepository.findByRevokedAtAfter(Date.from(since.minus(syncInterval).minusSeconds(5)));
+            return changes
+                    .doOnNext(this::add)
+                    .then(Mono.fromRunnable(() -> {
+                        lastSync = started;
+                        buckets.headMap(System.currentTimeMillis() / bucketMs).clear();
+                    }));
+        });
+    }
+
+    private void add(RevokedToken revokedToken) {
+        if (revokedToken.getExpiresAt() == null || revokedToken.getExpiresAt().getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(revokedToken.getExpiresAt().getTime() / bucketMs,
+                        bucket -> new BloomFilter(expectedPerBucket, falsePositiveRate))
+                .put(revokedToken.getId());
+        confirmations.put(revokedToken.getId(), true);
+    }
+}
@@ -0,0 +1,207 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.persistences.models.entities.TokenEpoch;
+import com.diceprojects.msvcauthentication.persistences.repositories.TokenEpochRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de la epoch vigente de los tokens de cada usuario, para cerrar todas sus sesiones en O(1).
+ * <p>
+ * Incrementar la epoch de un usuario guarda el instante del cambio ({@code updatedAt}) y deja inválidos de una
+ * vez todos los tokens emitidos antes ({@code iat} anterior a ese instante), sin guardar nada por token. Como la
+ * comparación usa el instante de emisión del propio token, un token recién emitido en otra instancia es válido
+ * aunque esta aún no haya sincronizado el cambio. La claim {@code iat} tiene precisión de segundos: un token
+ * emitido en el mismo segundo que el cierre de sesiones se considera anterior.
+ * <p>
+ * En memoria solo se mantienen los usuarios cuya epoch se incrementó dentro de la vida máxima de los tokens
+ * ({@code auth.epoch.retentionMs}); un cambio más antiguo ya no afecta a ningún token vigente. Cada instancia
+ * incorpora los cambios de las demás con una sincronización incremental periódica sobre MongoDB y, hasta la
+ * primera sincronización, consulta MongoDB para cada usuario.
+ */
+@Component
+public class TokenEpochRegistry implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenEpochRegistry.class);
+    private static final Mono<Boolean> CURRENT = Mono.just(false);
+    private static final Mono<Boolean> SUPERSEDED = Mono.just(true);
+
+    private final TokenEpochRepository tokenEpochRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration syncInterval;
+    private final Duration retention;
+    private final Map<String, Instant> epochs = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync;
+    private Disposable syncLoop;
+
+    /**
+     * Constructor de TokenEpochRegistry.
+     *
+     * @param tokenEpochRepository el repositorio de epochs.
+     * @param mongoTemplate        la plantilla reactiva de MongoDB, usada para el incremento atómico.
+     * @param enabled              indica si se comprueba la epoch de los tokens.
+     * @param syncIntervalMs       intervalo (en milisegundos) de la sincronización incremental.
+     * @param retentionMs          tiempo (en milisegundos) durante el que se conserva un incremento; debe cubrir
+     *                             la vida máxima de los tokens.
+     * @param meterRegistry        registro de métricas.
+     */
+    public TokenEpochRegistry(TokenEpochRepository tokenEpochRepository, ReactiveMongoTemplate mongoTemplate,
+                              @Value("${auth.epoch.enabled:true}") boolean enabled,
+                              @Value("${auth.epoch.syncIntervalMs:5000}") long syncIntervalMs,
+                              @Value("${auth.epoch.retentionMs:86400000}") long retentionMs,
+                              MeterRegistry meterRegistry) {
+        this.tokenEpochRepository = tokenEpochRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.syncInterval = Duration.ofMillis(syncIntervalMs);
+        this.retention = Duration.ofMillis(retentionMs);
+
+        Gauge.builder("auth.epoch.users", epochs, Map::size)
+                .description("Usuarios con epoch de tokens incrementada")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crea el índice de sincronización e inicia la sincronización periódica.
+     *
+     * @param event Evento de aplicación lista.
+     */
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
+        if (!enabled || syncLoop != null) {
+            return;
+        }
+        mongoTemplate.indexOps(TokenEpoch.class)
+                .ensureIndex(new Index().on("updatedAt", Sort.Direction.ASC))
+                .subscribe(
+                        name -> logger.debug("Índices de epochs de tokens verificados"),
+                        e -> logger.warn("No se pudieron crear los índices de epochs de tokens: {}", e.getMessage()));
+        syncLoop = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync()
+                        .onErrorResume(e -> {
+                            logger.warn("No se pudieron sincronizar las epochs de tokens: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Detiene la sincronización periódica.
+     */
+    @PreDestroy
+    public void stop() {
+        if (syncLoop != null) {
+            syncLoop.dispose();
+        }
+    }
+
+    /**
+     * Indica si un token se emitió antes del último incremento de la epoch de su usuario.
+     * Tras la primera sincronización es una consulta en memoria; antes, se consulta MongoDB y, si la consulta
+     * falla, el token se rechaza.
+     *
+     * @param claims las claims verificadas del token.
+     * @return un {@link Mono} que emite {@code true} si el token quedó invalidado por un cierre de todas las sesiones.
+     */
+    public Mono<Boolean> isSuperseded(Claims claims) {
+        if (!enabled) {
+            return CURRENT;
+        }
+        if (lastSync != null) {
+            return isSuperseded(claims, epochs.get(claims.getSubject())) ? SUPERSEDED : CURRENT;
+        }
+        return tokenEpochRepository.findById(claims.getSubject())
+                .doOnNext(this::apply)
+                .map(tokenEpoch -> isSuperseded(claims, toInstant(tokenEpoch.getUpdatedAt())))
+                .defaultIfEmpty(false)
+                .onErrorResume(e -> {
+                    logger.warn("No se pudo consultar la epoch de tokens de {}: {}", claims.getSubject(), e.getMessage());
+                    return SUPERSEDED;
+                });
+    }
+
+    /**
+     * Incrementa la epoch de un usuario y guarda el instante del cambio, invalidando todos sus tokens emitidos
+     * hasta ahora.
+     * El cambio se aplica de inmediato en esta instancia y llega al resto con la siguiente sincronización.
+     *
+     * @param username el nombre del usuario.
+     * @return un {@link Mono} que emite la nueva epoch.
+     */
+    public Mono<Long> bump(String username) {
+        Query query = Query.query(Criteria.where("_id").is(username));
+        Update update = new Update().inc("epoch", 1).set("updatedAt", new Date());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true), TokenEpoch.class)
+                .doOnNext(this::apply)
+                .map(TokenEpoch::getEpoch);
+    }
+
+    /**
+     * Incorpora las epochs modificadas desde la última sincronización (con un margen para tolerar
+     * diferencias de reloj entre instancias); la primera vez, todas las que siguen dentro del periodo de retención.
+     * Después descarta los incrementos que ya no afectan a ningún token vigente.
+     *
+     * @return un {@link Mono} que completa al terminar la sincronización.
+     */
+    Mono<Void> sync() {
+        return Mono.defer(() -> {
+            Instant started = Instant.now();
+            Instant oldest = started.minus(retention);
+            Instant since = lastSync;
+            Instant from = since == null ? oldest : since.minus(syncInterval).minusSeconds(5);
+            return tokenEpochRepository.findByUpdatedAtAfter(Date.from(from))
+                    .doOnNext(this::apply)
+                    .then(Mono.fromRunnable(() -> {
+                        epochs.values().removeIf(updatedAt -> updatedAt.isBefore(oldest));
+                        lastSync = started;
+                    }));
+        });
+    }
+
+    private void apply(TokenEpoch tokenEpoch) {
+        Instant updatedAt = toInstant(tokenEpoch.getUpdatedAt());
+        if (updatedAt != null) {
+            epochs.merge(tokenEpoch.getId(), updatedAt, (current, next) -> next.isAfter(current) ? next : current);
+        }
+    }
+
+    private static boolean isSuperseded(Claims claims, Instant updatedAt) {
+        if (updatedAt == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.toInstant().isBefore(updatedAt);
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.diceprojects.msvcauthentication.security;
+
+/**
+ * Resultado de la verificación de un token JWT.
+ */
+public enum TokenStatus {
+
+    /**
+     * Token con firma válida, vigente y no revocado.
+     */
+    VALID("valid", null),
+
+    /**
+     * Token con firma válida pero expirado.
+     */
+    EXPIRED("expired", "Token expirado"),
+
+    /**
+     * Token cuya firma no se pudo verificar (firma incorrecta, clave desconocida o token sin firmar).
+     */
+    BAD_SIGNATURE("bad_signature", "Firma del token inválida"),
+
+    /**
+     * Cadena que no es un JWS bien formado.
+     */
+    MALFORMED("malformed", "Token mal formado"),
+
+    /**
+     * Token revocado individualmente por su {@code jti}.
+     */
+    REVOKED("revoked", "Token revocado"),
+
+    /**
+     * Token emitido antes de que el usuario cerrara todas sus sesiones.
+     */
+    SUPERSEDED("superseded", "Sesión cerrada");
+
+    private final String tag;
+    private final String reason;
+
+    TokenStatus(String tag, String reason) {
+        this.tag = tag;
+        this.reason = reason;
+    }
+
+    /**
+     * Obtiene el valor con el que se etiqueta el resultado en las métricas.
+     *
+     * @return la etiqueta del resultado.
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Obtiene el motivo del rechazo que se informa al cliente.
+     *
+     * @return el motivo, o {@code null} para {@link #VALID}.
+     */
+    public String getReason() {
+        return reason;
+    }
+}
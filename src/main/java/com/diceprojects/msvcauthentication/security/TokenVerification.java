@@ -0,0 +1,42 @@
+package com.diceprojects.msvcauthentication.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Resultado tipado de la verificación de un token JWT: un token rechazado se representa como un valor,
+ * no como una excepción, para que un volumen alto de tokens inválidos no cueste capturas de pila ni logs.
+ *
+ * @param status el resultado de la verificación.
+ * @param claims las claims verificadas del token; solo están presentes si el token es válido.
+ */
+public record TokenVerification(TokenStatus status, Claims claims) {
+
+    /**
+     * Crea el resultado de un token válido.
+     *
+     * @param claims las claims verificadas del token.
+     * @return el resultado de la verificación.
+     */
+    public static TokenVerification valid(Claims claims) {
+        return new TokenVerification(TokenStatus.VALID, claims);
+    }
+
+    /**
+     * Crea el resultado de un token rechazado.
+     *
+     * @param status el motivo del rechazo.
+     * @return el resultado de la verificación.
+     */
+    public static TokenVerification rejected(TokenStatus status) {
+        return new TokenVerification(status, null);
+    }
+
+    /**
+     * Indica si el token es válido.
+     *
+     * @return {@code true} si el token es válido.
+     */
+    public boolean isValid() {
+        return status == TokenStatus.VALID;
+    }
+}
@@ -0,0 +1,100 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RoleDTO;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Clase utilitaria para el perfil de token autocontenido.
+ * Define las claims estructuradas (id de usuario, estado y roles) que permiten reconstruir
+ * los detalles del usuario a partir de un token verificado sin consultar el servicio de autorización.
+ */
+public final class UserClaims {
+
+    /**
+     * Claim con los nombres de los roles separados por comas (presente en todos los tokens).
+     */
+    public static final String ROLES = "roles";
+
+    /**
+     * Claim con el identificador del usuario.
+     */
+    public static final String USER_ID = "uid";
+
+    /**
+     * Claim con el estado del usuario.
+     */
+    public static final String STATUS = "status";
+
+    /**
+     * Claim con la lista estructurada de roles ({@code id}, {@code role}, {@code status}).
+     */
+    public static final String ROLE_DETAILS = "roleDetails";
+
+    private UserClaims() {
+    }
+
+    /**
+     * Construye las claims estructuradas del perfil autocontenido para un usuario.
+     *
+     * @param userDetails los detalles del usuario.
+     * @return un mapa con las claims a incluir en el token.
+     */
+    public static Map<String, Object> fromUser(UserDetailsDTO userDetails) {
+        List<Map<String, String>> roles = userDetails.getRoles().stream()
+                .map(role -> {
+                    Map<String, String> values = new LinkedHashMap<>();
+                    values.put("id", role.getId());
+                    values.put("role", role.getRole());
+                    values.put("status", role.getStatus());
+                    return values;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(USER_ID, userDetails.getId());
+        claims.put(STATUS, userDetails.getStatus());
+        claims.put(ROLE_DETAILS, roles);
+        return claims;
+    }
+
+    /**
+     * Indica si las claims corresponden al perfil de token autocontenido.
+     *
+     * @param claims las claims verificadas del token.
+     * @return {@code true} si el token incluye las claims estructuradas del usuario.
+     */
+    public static boolean isSelfContained(Claims claims) {
+        return claims.get(USER_ID) != null && claims.get(ROLE_DETAILS) instanceof Collection;
+    }
+
+    /**
+     * Reconstruye los detalles del usuario a partir de las claims del perfil autocontenido.
+     * La contraseña nunca forma parte del token, por lo que se devuelve como {@code null}.
+     *
+     * @param claims las claims verificadas del token.
+     * @return los detalles del usuario.
+     */
+    public static UserDetailsDTO toUserDetails(Claims claims) {
+        Set<RoleDTO> roles = new LinkedHashSet<>();
+        for (Object item : (Collection<?>) claims.get(ROLE_DETAILS)) {
+            if (item instanceof Map<?, ?> role) {
+                roles.add(new RoleDTO(asString(role.get("id")), asString(role.get("role")), asString(role.get("status"))));
+            }
+        }
+        return new UserDetailsDTO(asString(claims.get(USER_ID)), claims.getSubject(), null,
+                asString(claims.get(STATUS)), roles);
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
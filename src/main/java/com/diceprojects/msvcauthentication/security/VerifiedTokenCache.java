@@ -0,0 +1,136 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché acotada en memoria de tokens JWT ya verificados.
+ * Las entradas se indexan por un resumen SHA-256 del token (nunca por el token en claro)
+ * y expiran como máximo en el instante {@code exp} del propio token, de modo que un acierto
+ * evita por completo la verificación de la firma y el parseo de las claims.
+ * Las métricas de aciertos, fallos y desalojos se publican en Micrometer bajo el nombre {@code jwt.verified}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Cache<String, Claims> cache;
+
+    /**
+     * Constructor de VerifiedTokenCache.
+     *
+     * @param enabled       indica si la caché está habilitada.
+     * @param maximumSize   número máximo de tokens verificados que se mantienen en memoria.
+     * @param meterRegistry registro de métricas donde se publican los contadores de la caché.
+     */
+    public VerifiedTokenCache(@Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.maximumSize:10000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * Obtiene las claims verificadas de un token si se encuentran en la caché.
+     *
+     * @param token el token JWT.
+     * @return las claims verificadas, o {@code null} si el token no está en la caché.
+     */
+    public Claims get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(digest(token));
+    }
+
+    /**
+     * Guarda las claims verificadas de un token. Los tokens sin fecha de expiración
+     * o ya expirados no se almacenan.
+     *
+     * @param token  el token JWT verificado.
+     * @param claims las claims verificadas del token.
+     */
+    public void put(String token, Claims claims) {
+        if (!enabled || claims.getExpiration() == null || !claims.getExpiration().after(new Date())) {
+            return;
+        }
+        cache.put(digest(token), claims);
+    }
+
+    /**
+     * Elimina un token concreto de la caché.
+     *
+     * @param token el token JWT.
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * Vacía la caché por completo, por ejemplo tras un cambio de la clave de firma.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Calcula el resumen SHA-256 del token codificado en Base64.
+     *
+     * @param token el token JWT.
+     * @return el resumen del token.
+     */
+    private String digest(String token) {
+        MessageDigest messageDigest = SHA_256.get();
+        return Base64.getEncoder().withoutPadding()
+                .encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Política de expiración que hace caducar cada entrada en el {@code exp} de su token.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(@NonNull String key, @NonNull Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull String key, @NonNull Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull String key, @NonNull Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
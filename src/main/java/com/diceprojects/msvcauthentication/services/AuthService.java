@@ -2,9 +2,14 @@ package com.diceprojects.msvcauthentication.services;
 
 import com.diceprojects.msvcauthentication.persistences.models.dtos.AuthResponse;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.LoginRequest;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RefreshRequest;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.TokenValidationResult;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Interfaz que proporciona servicios de autenticación.
  */
@@ -26,4 +31,37 @@ public interface AuthService {
      */
     Mono<UserDetailsDTO> validateAndGetUser(String token);
 
+    /**
+     * Valida varios tokens JWT en una sola pasada.
+     *
+     * @param tokens Los tokens JWT a validar, con o sin prefijo "Bearer ".
+     * @return Un {@link Flux} que emite el resultado de cada token, en el orden de la solicitud.
+     */
+    Flux<TokenValidationResult> validateBatch(List<String> tokens);
+
+    /**
+     * Emite un nuevo token de acceso a partir de un refresh token, sin volver a verificar la contraseña.
+     * El refresh token presentado se consume y se devuelve uno nuevo de la misma familia.
+     *
+     * @param refreshRequest la solicitud que contiene el refresh token.
+     * @return un Mono que emite la respuesta de autenticación con el nuevo token JWT y el nuevo refresh token
+     */
+    Mono<AuthResponse> refresh(RefreshRequest refreshRequest);
+
+    /**
+     * Revoca un token JWT antes de su expiración.
+     *
+     * @param token El token JWT a revocar.
+     * @return Un {@link Mono} que completa cuando la revocación se ha guardado.
+     */
+    Mono<Void> revoke(String token);
+
+    /**
+     * Cierra todas las sesiones del usuario del token: invalida todos sus tokens de acceso y refresh tokens.
+     *
+     * @param token Un token JWT válido del usuario.
+     * @return Un {@link Mono} que completa cuando las sesiones quedan cerradas.
+     */
+    Mono<Void> logoutAll(String token);
+
 }
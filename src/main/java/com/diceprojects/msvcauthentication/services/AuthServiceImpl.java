@@ -1,18 +1,38 @@
 package com.diceprojects.msvcauthentication.services;
 
 import com.diceprojects.msvcauthentication.clients.AuthorizationClient;
+import com.diceprojects.msvcauthentication.exceptions.ServiceOverloadedException;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.AuthResponse;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.LoginRequest;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RefreshRequest;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.TokenValidationResult;
 import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
 import com.diceprojects.msvcauthentication.security.CustomReactiveAuthenticationManager;
 import com.diceprojects.msvcauthentication.security.JwtUtil;
+import com.diceprojects.msvcauthentication.security.TokenDenylist;
+import com.diceprojects.msvcauthentication.security.TokenEpochRegistry;
+import com.diceprojects.msvcauthentication.utils.SingleFlight;
+import com.diceprojects.msvcauthentication.utils.StageTimer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
  * Implementación de {@link AuthService} que proporciona servicios de autenticación.
  */
@@ -22,56 +42,262 @@ public class AuthServiceImpl implements AuthService {
     private final CustomReactiveAuthenticationManager customAuthenticationManager;
     private final JwtUtil jwtUtil;
     private final AuthorizationClient authorizationClient;
+    private final TokenPersistenceService tokenPersistenceService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenDenylist tokenDenylist;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final int batchMaxSize;
+    private final boolean singleFlightEnabled;
+    private final SingleFlight<String, UserDetailsDTO> validations = new SingleFlight<>();
+    private final int batchConcurrency;
+    private final StageTimer loginTimer;
+    private final StageTimer tokenSignTimer;
+    private final StageTimer tokenPersistTimer;
+    private final StageTimer refreshIssueTimer;
+    private final StageTimer validateTimer;
+    private final StageTimer verifyTimer;
+    private final StageTimer validateUserLookupTimer;
 
     /**
      * Constructor de AuthServiceImpl.
      *
      * @param customAuthenticationManager El gestor de autenticación reactiva personalizada.
      * @param jwtUtil                     La utilidad JWT para la generación de tokens.
+     * @param tokenPersistenceService     El servicio que persiste el token emitido en msvc-authorization.
+     * @param refreshTokenService         El servicio de refresh tokens.
+     * @param tokenDenylist               La lista de tokens revocados.
+     * @param tokenEpochRegistry          El registro de epochs de tokens por usuario.
+     * @param batchMaxSize                El número máximo de tokens por solicitud de validación en lote.
+     * @param batchConcurrency            El número máximo de tokens de un lote que se validan a la vez.
+     * @param singleFlightEnabled         Indica si las validaciones concurrentes de un mismo token comparten resultado.
+     * @param meterRegistry               El registro de métricas, donde se publican los tiempos de cada etapa del
+     *                                    inicio de sesión ({@code auth.login}) y de la validación ({@code auth.validate}).
      */
     public AuthServiceImpl(@Lazy CustomReactiveAuthenticationManager customAuthenticationManager,
-                           JwtUtil jwtUtil, AuthorizationClient authorizationClient) {
+                           JwtUtil jwtUtil, AuthorizationClient authorizationClient,
+                           TokenPersistenceService tokenPersistenceService,
+                           RefreshTokenService refreshTokenService,
+                           TokenDenylist tokenDenylist,
+                           TokenEpochRegistry tokenEpochRegistry,
+                           @Value("${auth.validate.batch.maxSize:100}") int batchMaxSize,
+                           @Value("${auth.validate.batch.concurrency:16}") int batchConcurrency,
+                           @Value("${auth.validate.singleFlight.enabled:true}") boolean singleFlightEnabled,
+                           MeterRegistry meterRegistry) {
         this.customAuthenticationManager = customAuthenticationManager;
         this.jwtUtil = jwtUtil;
         this.authorizationClient = authorizationClient;
+        this.tokenPersistenceService = tokenPersistenceService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenDenylist = tokenDenylist;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.batchMaxSize = batchMaxSize;
+        this.batchConcurrency = batchConcurrency;
+        this.singleFlightEnabled = singleFlightEnabled;
+        FunctionCounter.builder("auth.validate.coalesced", validations, SingleFlight::joined)
+                .description("Validaciones atendidas con el resultado de otra validación en curso del mismo token")
+                .register(meterRegistry);
+        Gauge.builder("auth.validate.inflight", validations, SingleFlight::inFlight)
+                .register(meterRegistry);
+        String loginDescription = "Duración de las etapas del inicio de sesión";
+        this.loginTimer = new StageTimer("auth.login", "total", loginDescription, meterRegistry);
+        this.tokenSignTimer = new StageTimer("auth.login", "token_sign", loginDescription, meterRegistry);
+        this.tokenPersistTimer = new StageTimer("auth.login", "token_persist", loginDescription, meterRegistry);
+        this.refreshIssueTimer = new StageTimer("auth.login", "refresh_issue", loginDescription, meterRegistry);
+        String validateDescription = "Duración de las etapas de la validación de tokens";
+        this.validateTimer = new StageTimer("auth.validate", "total", validateDescription, meterRegistry);
+        this.verifyTimer = new StageTimer("auth.validate", "verify", validateDescription, meterRegistry);
+        this.validateUserLookupTimer = new StageTimer("auth.validate", "user_lookup", validateDescription, meterRegistry);
     }
 
     /**
      * Autentica a un usuario basado en los detalles de la solicitud de inicio de sesión.
+     * Cada etapa se mide en {@code auth.login} con la etiqueta {@code stage}: {@code user_lookup} y
+     * {@code password_check} (en el gestor de autenticación), {@code token_sign}, {@code token_persist},
+     * {@code refresh_issue} y {@code total}. La serialización y escritura de la respuesta es la diferencia
+     * entre {@code http.server.requests} y la etapa {@code total}.
      *
      * @param loginRequest La solicitud de inicio de sesión que contiene el nombre de usuario y la contraseña.
      * @return Un {@link Mono} que emite {@link AuthResponse} con el token JWT y la información relacionada si la autenticación es exitosa.
      */
     @Override
     public Mono<AuthResponse> authenticate(LoginRequest loginRequest) {
-        return customAuthenticationManager.authenticate(
+        return loginTimer.time(customAuthenticationManager.authenticate(
                         new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()))
-                .flatMap(authentication -> jwtUtil.generateToken(authentication)
-                        .flatMap(token -> authorizationClient.getUserByUsername(authentication.getName())
-                                .flatMap(userDetails -> authorizationClient.updateUserToken(userDetails.getId(), token)
-                                        .then(Mono.just(new AuthResponse(authentication.getName(), token, jwtUtil.getExpiryDateFromToken(token))))
+                .flatMap(authentication -> resolveUserDetails(authentication)
+                        .flatMap(userDetails -> tokenSignTimer.time(jwtUtil.generateToken(userDetails))
+                                .flatMap(token -> tokenPersistTimer.time(tokenPersistenceService.persist(userDetails.getId(), token))
+                                        .then(refreshIssueTimer.time(refreshTokenService.issue(userDetails)))
+                                        .map(refreshToken -> new AuthResponse(authentication.getName(), token, jwtUtil.getExpiryDateFromToken(token), refreshToken))
+                                        .switchIfEmpty(Mono.fromSupplier(() -> new AuthResponse(authentication.getName(), token, jwtUtil.getExpiryDateFromToken(token))))
                                 )
                         )
-                )
-                .onErrorResume(e -> Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciales inválidas")));
+                ))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException),
+                        e -> Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciales inválidas")));
+    }
+
+    /**
+     * Emite un nuevo token de acceso a partir de un refresh token.
+     * No se verifica la contraseña: el coste es el consumo atómico del refresh token, la consulta del usuario
+     * (para reflejar cambios de roles) y la firma del nuevo token. Si algo falla después de consumir el refresh
+     * token y antes de emitir el siguiente, el consumo se deshace para que el cliente pueda reintentar; si falla
+     * después, se descarta el siguiente antes de deshacer el consumo, para que la familia nunca tenga dos tokens
+     * vigentes.
+     *
+     * @param refreshRequest La solicitud que contiene el refresh token.
+     * @return Un {@link Mono} que emite {@link AuthResponse} con el nuevo token JWT y el nuevo refresh token.
+     */
+    @Override
+    public Mono<AuthResponse> refresh(RefreshRequest refreshRequest) {
+        if (!refreshTokenService.isEnabled()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Refresh tokens deshabilitados"));
+        }
+        return refreshTokenService.consume(refreshRequest.getRefreshToken())
+                .flatMap(consumed -> authorizationClient.getUserByUsername(consumed.getUsername())
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado")))
+                        .zipWhen(jwtUtil::generateToken)
+                        .onErrorResume(e -> refreshTokenService.release(consumed).then(Mono.error(e)))
+                        .flatMap(issued -> refreshTokenService.rotate(consumed)
+                                .flatMap(refreshToken -> tokenPersistenceService.persist(issued.getT1().getId(), issued.getT2())
+                                        .onErrorResume(e -> refreshTokenService.rollback(consumed, refreshToken).then(Mono.error(e)))
+                                        .thenReturn(new AuthResponse(issued.getT1().getUsername(), issued.getT2(),
+                                                jwtUtil.getExpiryDateFromToken(issued.getT2()), refreshToken)))))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No se pudo renovar el token", e));
+    }
+
+    /**
+     * Obtiene los detalles del usuario cargados durante la verificación de credenciales,
+     * recurriendo al servicio de autorización solo si la autenticación no los incluye.
+     *
+     * @param authentication la autenticación resultante de la verificación de credenciales.
+     * @return Un {@link Mono} que emite los detalles del usuario autenticado.
+     */
+    private Mono<UserDetailsDTO> resolveUserDetails(Authentication authentication) {
+        if (authentication.getDetails() instanceof UserDetailsDTO userDetails) {
+            return Mono.just(userDetails);
+        }
+        return authorizationClient.getUserByUsername(authentication.getName());
     }
 
     /**
      * Valida un token JWT y recupera los detalles del usuario si el token es válido.
+     * Las validaciones concurrentes de un mismo token comparten una única verificación y una única consulta
+     * al servicio de autorización; el resultado se libera en cuanto termina, por lo que no se reutiliza después.
+     * Cada etapa se mide en {@code auth.validate} con la etiqueta {@code stage}: {@code verify},
+     * {@code user_lookup} y {@code total} (esta última incluye la espera de las validaciones agrupadas).
      *
      * @param token El token JWT a validar.
      * @return Un {@link Mono} que emite los detalles del usuario si el token es válido.
      */
     public Mono<UserDetailsDTO> validateAndGetUser(String token) {
-        return jwtUtil.validateToken(token)
-                .flatMap(isValid -> {
-                    if (isValid) {
-                        return jwtUtil.getUserFromToken(token, authorizationClient)
-                                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado")));
-                    } else {
-                        return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido o expirado"));
-                    }
-                });
+        String jwt = stripBearerPrefix(token);
+        if (!singleFlightEnabled || jwt == null) {
+            return validateTimer.time(verifyAndGetUser(jwt));
+        }
+        return validateTimer.time(validations.execute(jwt, () -> verifyAndGetUser(jwt)));
+    }
+
+    /**
+     * Verifica un token JWT sin prefijo y recupera los detalles de su usuario.
+     *
+     * @param token El token JWT sin prefijo.
+     * @return Un {@link Mono} que emite los detalles del usuario si el token es válido.
+     */
+    private Mono<UserDetailsDTO> verifyAndGetUser(String token) {
+        return verifyTimer.time(jwtUtil.verifyToken(token))
+                .flatMap(claims -> validateUserLookupTimer.time(jwtUtil.getUserFromClaims(claims, authorizationClient))
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuario no encontrado"))))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido o expirado")));
+    }
+
+    /**
+     * Valida varios tokens JWT en una sola pasada. Los tokens repetidos se verifican una vez y los usuarios
+     * se consultan una vez por lote, aunque aparezcan en varios tokens. Cada resultado se emite en cuanto
+     * está listo, respetando el orden de la solicitud; un token rechazado no interrumpe el resto del lote.
+     *
+     * @param tokens Los tokens JWT a validar, con o sin prefijo "Bearer ".
+     * @return Un {@link Flux} que emite el resultado de cada token, o un error 413 si el lote supera el máximo.
+     */
+    @Override
+    public Flux<TokenValidationResult> validateBatch(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return Flux.empty();
+        }
+        if (tokens.size() > batchMaxSize) {
+            return Flux.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "El lote supera el máximo de " + batchMaxSize + " tokens"));
+        }
+        Map<String, Mono<UserDetailsDTO>> byToken = new HashMap<>();
+        Map<String, Mono<UserDetailsDTO>> byUsername = new ConcurrentHashMap<>();
+        Function<String, Mono<UserDetailsDTO>> userLookup = username -> byUsername.computeIfAbsent(username,
+                name -> authorizationClient.getUserByUsername(name).cache());
+        List<Mono<UserDetailsDTO>> validations = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            validations.add(byToken.computeIfAbsent(stripBearerPrefix(token), jwt -> jwt == null || jwt.isBlank()
+                    ? Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido o expirado"))
+                    : verifyTimer.time(jwtUtil.verifyToken(jwt))
+                            .flatMap(claims -> validateUserLookupTimer.time(jwtUtil.getUserFromClaims(claims, userLookup)))
+                            .cache()));
+        }
+        return Flux.range(0, validations.size())
+                .flatMapSequential(index -> validations.get(index)
+                        .map(user -> TokenValidationResult.valid(index, user))
+                        .defaultIfEmpty(TokenValidationResult.invalid(index, "Usuario no encontrado"))
+                        .onErrorResume(e -> Mono.just(TokenValidationResult.invalid(index, reasonOf(e)))),
+                        batchConcurrency);
+    }
+
+    /**
+     * Obtiene el motivo que se informa al cliente por un token rechazado dentro de un lote.
+     *
+     * @param e el error de la validación.
+     * @return el motivo del rechazo.
+     */
+    private String reasonOf(Throwable e) {
+        if (e instanceof ResponseStatusException statusException && statusException.getReason() != null) {
+            return statusException.getReason();
+        }
+        return e instanceof ServiceOverloadedException ? "Servicio saturado" : "No se pudo validar el token";
+    }
+
+    /**
+     * Revoca un token JWT antes de su expiración. El token debe ser válido; su {@code jti} queda en la lista
+     * de tokens revocados hasta que el token expira.
+     *
+     * @param token El token JWT a revocar.
+     * @return Un {@link Mono} que completa cuando la revocación se ha guardado.
+     */
+    @Override
+    public Mono<Void> revoke(String token) {
+        return jwtUtil.verifyToken(stripBearerPrefix(token))
+                .flatMap(claims -> claims.getId() == null
+                        ? Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "El token no admite revocación"))
+                        : tokenDenylist.revoke(claims.getId(), claims.getExpiration()));
+    }
+
+    /**
+     * Cierra todas las sesiones del usuario del token incrementando su epoch: todos sus tokens de acceso
+     * anteriores dejan de ser válidos sin registrar cada token, y sus refresh tokens se revocan.
+     *
+     * @param token Un token JWT válido del usuario.
+     * @return Un {@link Mono} que completa cuando las sesiones quedan cerradas.
+     */
+    @Override
+    public Mono<Void> logoutAll(String token) {
+        return jwtUtil.verifyToken(stripBearerPrefix(token))
+                .flatMap(claims -> tokenEpochRegistry.bump(claims.getSubject())
+                        .then(refreshTokenService.revokeAll(claims.getSubject())));
+    }
+
+    /**
+     * Elimina el prefijo "Bearer " de la cabecera Authorization si está presente.
+     *
+     * @param token el valor de la cabecera o el token JWT sin prefijo.
+     * @return el token JWT sin prefijo.
+     */
+    private String stripBearerPrefix(String token) {
+        return token != null && token.startsWith("Bearer ") ? token.substring(7) : token;
     }
 
 }
@@ -0,0 +1,295 @@
+package com.diceprojects.msvcauthentication.services;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.diceprojects.msvcauthentication.persistences.models.entities.RefreshToken;
+import com.diceprojects.msvcauthentication.persistences.repositories.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Servicio de refresh tokens opacos de un solo uso guardados en MongoDB.
+ * <p>
+ * Cada inicio de sesión abre una familia de tokens. Renovar consume el token de forma atómica
+ * ({@code findAndModify} condicionado a que no se haya usado) y emite el siguiente de la misma familia;
+ * presentar un token ya consumido se interpreta como robo y revoca la familia completa.
+ * El token en claro solo viaja al cliente: en la base de datos se guarda su resumen SHA-256,
+ * que es además el {@code _id} del documento, de modo que cada búsqueda usa el índice primario.
+ */
+@Service
+public class RefreshTokenService implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration maxLifetime;
+    private final Duration issueTimeout;
+
+    private final Counter issuedCounter;
+    private final Counter rotatedCounter;
+    private final Counter reusedCounter;
+    private final Counter invalidCounter;
+
+    /**
+     * Constructor de RefreshTokenService.
+     *
+     * @param refreshTokenRepository el repositorio de refresh tokens.
+     * @param mongoTemplate          la plantilla reactiva de MongoDB, usada para el consumo atómico.
+     * @param enabled                indica si se emiten refresh tokens.
+     * @param ttlMs                  validez (en milisegundos) de cada refresh token.
+     * @param maxLifetimeMs          duración máxima (en milisegundos) de una familia desde el inicio de sesión.
+     * @param issueTimeoutMs         tiempo máximo (en milisegundos) de espera a MongoDB al emitir el primer token.
+     * @param meterRegistry          registro de métricas.
+     */
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, ReactiveMongoTemplate mongoTemplate,
+                               @Value("${auth.refresh.enabled:true}") boolean enabled,
+                               @Value("${auth.refresh.ttlMs:1209600000}") long ttlMs,
+                               @Value("${auth.refresh.maxLifetimeMs:2592000000}") long maxLifetimeMs,
+                               @Value("${auth.refresh.issueTimeoutMs:2000}") long issueTimeoutMs,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.maxLifetime = Duration.ofMillis(maxLifetimeMs);
+        this.issueTimeout = Duration.ofMillis(issueTimeoutMs);
+
+        this.issuedCounter = Counter.builder("auth.refresh")
+                .tag("result", "issued")
+                .register(meterRegistry);
+        this.rotatedCounter = Counter.builder("auth.refresh")
+                .tag("result", "rotated")
+                .register(meterRegistry);
+        this.reusedCounter = Counter.builder("auth.refresh")
+                .tag("result", "reused")
+                .description("Refresh tokens reutilizados; cada uno revoca su familia")
+                .register(meterRegistry);
+        this.invalidCounter = Counter.builder("auth.refresh")
+                .tag("result", "invalid")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crea los índices de la colección al arrancar: TTL sobre {@code expiresAt} y consulta por familia y por usuario.
+     * Un fallo no impide el arranque; solo se registra.
+     *
+     * @param event Evento de aplicación lista.
+     */
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        mongoTemplate.indexOps(RefreshToken.class)
+                .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO))
+                .then(mongoTemplate.indexOps(RefreshToken.class).ensureIndex(new Index().on("familyId", Sort.Direction.ASC)))
+                .then(mongoTemplate.indexOps(RefreshToken.class).ensureIndex(new Index().on("username", Sort.Direction.ASC)))
+                .subscribe(
+                        name -> logger.debug("Índices de refresh tokens verificados"),
+                        e -> logger.warn("No se pudieron crear los índices de refresh tokens: {}", e.getMessage()));
+    }
+
+    /**
+     * Indica si el servicio emite refresh tokens.
+     *
+     * @return {@code true} si los refresh tokens están habilitados.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Abre una nueva familia y emite su primer refresh token.
+     * Si la emisión falla o no termina en {@code auth.refresh.issueTimeoutMs}, se registra y se devuelve vacío,
+     * para que el inicio de sesión no dependa de MongoDB.
+     *
+     * @param userDetails los detalles del usuario autenticado.
+     * @return un {@link Mono} que emite el refresh token en claro, o vacío si no se emitió.
+     */
+    public Mono<String> issue(UserDetailsDTO userDetails) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        Date now = new Date();
+        RefreshToken family = new RefreshToken();
+        family.setFamilyId(newOpaqueToken());
+        family.setUserId(userDetails.getId());
+        family.setUsername(userDetails.getUsername());
+        family.setFamilyExpiresAt(new Date(now.getTime() + maxLifetime.toMillis()));
+        return insertNext(family, now)
+                .timeout(issueTimeout)
+                .onErrorResume(e -> {
+                    logger.warn("No se pudo emitir el refresh token de {}: {}", userDetails.getUsername(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Consume un refresh token de forma atómica. Solo una solicitud concurrente puede consumir un mismo token.
+     * Si el token ya se había consumido, se revoca toda su familia.
+     *
+     * @param token el refresh token en claro.
+     * @return un {@link Mono} que emite el token consumido, o un error 401 si no es válido o se reutilizó.
+     */
+    public Mono<RefreshToken> consume(String token) {
+        if (token == null || token.isBlank()) {
+            invalidCounter.increment();
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido o expirado"));
+        }
+        String id = digest(token);
+        Date now = new Date();
+        Query unused = Query.query(Criteria.where("_id").is(id)
+                .and("usedAt").is(null)
+                .and("revoked").is(false)
+                .and("expiresAt").gt(now));
+        return mongoTemplate.findAndModify(unused, new Update().set("usedAt", now),
+                        FindAndModifyOptions.options().returnNew(true), RefreshToken.class)
+                .switchIfEmpty(Mono.defer(() -> rejectAndDetectReuse(id)));
+    }
+
+    /**
+     * Emite el siguiente refresh token de la familia de un token consumido.
+     *
+     * @param consumed el token consumido.
+     * @return un {@link Mono} que emite el nuevo refresh token en claro.
+     */
+    public Mono<String> rotate(RefreshToken consumed) {
+        return insertNext(consumed, new Date())
+                .doOnNext(token -> rotatedCounter.increment());
+    }
+
+    /**
+     * Deshace el consumo de un token cuando la renovación no pudo completarse (por ejemplo, si el servicio
+     * de autorización no respondió), para que el cliente pueda reintentar con el mismo token.
+     *
+     * @param consumed el token consumido.
+     * @return un {@link Mono} que completa al deshacer el consumo.
+     */
+    public Mono<Void> release(RefreshToken consumed) {
+        Query ours = Query.query(Criteria.where("_id").is(consumed.getId()).and("usedAt").is(consumed.getUsedAt()));
+        return mongoTemplate.updateFirst(ours, new Update().unset("usedAt"), RefreshToken.class)
+                .onErrorResume(e -> {
+                    logger.warn("No se pudo liberar el refresh token consumido: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Deshace una rotación cuya respuesta no llegó a enviarse: elimina el token emitido y, solo si se eliminó,
+     * libera el consumido. Si la eliminación falla, el consumido sigue usado y el cliente debe iniciar sesión
+     * de nuevo, pero la familia no queda con dos tokens vigentes.
+     *
+     * @param consumed  el token consumido.
+     * @param successor el refresh token en claro emitido al rotar.
+     * @return un {@link Mono} que completa al deshacer la rotación.
+     */
+    public Mono<Void> rollback(RefreshToken consumed, String successor) {
+        return refreshTokenRepository.deleteById(digest(successor))
+                .then(Mono.defer(() -> release(consumed)))
+                .onErrorResume(e -> {
+                    logger.warn("No se pudo descartar el refresh token emitido: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Revoca todos los refresh tokens de un usuario.
+     *
+     * @param username el nombre del usuario.
+     * @return un {@link Mono} que completa cuando los tokens quedan revocados.
+     */
+    public Mono<Void> revokeAll(String username) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return refreshTokenRepository.revokeByUsername(username).then();
+    }
+
+    /**
+     * Rechaza un token que no pudo consumirse. Si el token existe y ya se había usado, se trata como una
+     * reutilización y se revoca la familia completa.
+     */
+    private Mono<RefreshToken> rejectAndDetectReuse(String id) {
+        return refreshTokenRepository.findById(id)
+                .filter(existing -> existing.getUsedAt() != null && !existing.isRevoked())
+                .flatMap(reused -> refreshTokenRepository.revokeFamily(reused.getFamilyId())
+                        .doOnNext(revoked -> {
+                            reusedCounter.increment();
+                            logger.warn("Refresh token reutilizado para {}; {} token(s) de la familia revocados",
+                                    reused.getUsername(), revoked);
+                        }))
+                .then(Mono.defer(() -> {
+                    invalidCounter.increment();
+                    return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido o expirado"));
+                }));
+    }
+
+    /**
+     * Inserta un nuevo token de la familia indicada; su validez nunca supera la fecha límite de la familia.
+     */
+    private Mono<String> insertNext(RefreshToken family, Date now) {
+        String token = newOpaqueToken();
+        long expiresAt = Math.min(now.getTime() + ttl.toMillis(), family.getFamilyExpiresAt().getTime());
+        if (expiresAt <= now.getTime()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sesión expirada"));
+        }
+        RefreshToken next = new RefreshToken();
+        next.setId(digest(token));
+        next.setFamilyId(family.getFamilyId());
+        next.setUserId(family.getUserId());
+        next.setUsername(family.getUsername());
+        next.setIssuedAt(now);
+        next.setExpiresAt(new Date(expiresAt));
+        next.setFamilyExpiresAt(family.getFamilyExpiresAt());
+        return refreshTokenRepository.insert(next)
+                .doOnNext(saved -> issuedCounter.increment())
+                .thenReturn(token);
+    }
+
+    private static String newOpaqueToken() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String digest(String token) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,228 @@
+package com.diceprojects.msvcauthentication.services;
+
+import com.diceprojects.msvcauthentication.clients.AuthorizationClient;
+import com.diceprojects.msvcauthentication.clients.ResiliencePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio que persiste en msvc-authorization el último token emitido para cada usuario.
+ * <p>
+ * En modo síncrono (por defecto) cada inicio de sesión espera a {@code updateUserToken}.
+ * En modo write-behind el inicio de sesión se confirma en cuanto el token está firmado: las actualizaciones
+ * se encolan en un búfer acotado, se agrupan por id de usuario (solo se conserva el último token)
+ * y se envían por lotes con reintentos. Si el búfer está lleno, la escritura se hace de forma síncrona
+ * para aplicar contrapresión sobre los inicios de sesión; salvo que el usuario tenga una escritura en curso,
+ * en cuyo caso el token se encola igualmente para que el lote siguiente lo escriba después de ella y
+ * la escritura anterior nunca sobrescriba a la más reciente.
+ */
+@Service
+public class TokenPersistenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenPersistenceService.class);
+
+    private final AuthorizationClient authorizationClient;
+    private final boolean writeBehind;
+    private final int maxPending;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration flushInterval;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Sinks.Many<Boolean> flushRequests = Sinks.many().multicast().directBestEffort();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+    private final Counter backpressureCounter;
+    private Disposable flushLoop;
+
+    /**
+     * Constructor de TokenPersistenceService.
+     *
+     * @param authorizationClient cliente del servicio de autorización.
+     * @param writeBehind         indica si se habilita el modo write-behind.
+     * @param maxPending          número máximo de usuarios con token pendiente de persistir.
+     * @param batchSize           número máximo de actualizaciones enviadas por lote.
+     * @param concurrency         número máximo de actualizaciones simultáneas dentro de un lote.
+     * @param flushIntervalMs     intervalo (en milisegundos) entre vaciados periódicos del búfer.
+     * @param maxRetries          número de reintentos por actualización antes de descartarla.
+     * @param retryBackoffMs      espera inicial (en milisegundos) entre reintentos.
+     * @param meterRegistry       registro de métricas.
+     */
+    public TokenPersistenceService(AuthorizationClient authorizationClient,
+                                   @Value("${auth.tokenPersistence.writeBehind:false}") boolean writeBehind,
+                                   @Value("${auth.tokenPersistence.maxPending:10000}") int maxPending,
+                                   @Value("${auth.tokenPersistence.batchSize:100}") int batchSize,
+                                   @Value("${auth.tokenPersistence.concurrency:8}") int concurrency,
+                                   @Value("${auth.tokenPersistence.flushIntervalMs:200}") long flushIntervalMs,
+                                   @Value("${auth.tokenPersistence.maxRetries:3}") int maxRetries,
+                                   @Value("${auth.tokenPersistence.retryBackoffMs:100}") long retryBackoffMs,
+                                   MeterRegistry meterRegistry) {
+        this.authorizationClient = authorizationClient;
+        this.writeBehind = writeBehind;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.flushInterval = Duration.ofMillis(flushIntervalMs);
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+
+        Gauge.builder("auth.token.persistence.pending", pending, Map::size)
+                .description("Tokens pendientes de persistir")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("auth.token.persistence.flushed")
+                .description("Tokens persistidos en segundo plano")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("auth.token.persistence.dropped")
+                .description("Tokens descartados tras agotar los reintentos")
+                .register(meterRegistry);
+        this.backpressureCounter = Counter.builder("auth.token.persistence.backpressure")
+                .description("Escrituras síncronas por búfer lleno")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia el ciclo de vaciado periódico cuando el modo write-behind está habilitado.
+     */
+    @PostConstruct
+    public void start() {
+        if (!writeBehind) {
+            return;
+        }
+        flushLoop = Flux.merge(Flux.interval(flushInterval).map(tick -> true), flushRequests.asFlux())
+                .onBackpressureDrop()
+                .flatMap(request -> flushing.compareAndSet(false, true)
+                        ? flushBatch().doFinally(signal -> flushing.set(false))
+                        : Mono.empty())
+                .subscribe();
+    }
+
+    /**
+     * Detiene el ciclo de vaciado y persiste los tokens pendientes antes de cerrar la aplicación.
+     */
+    @PreDestroy
+    public void stop() {
+        if (flushLoop == null) {
+            return;
+        }
+        flushLoop.dispose();
+        try {
+            Flux.defer(() -> Flux.fromIterable(drain(Integer.MAX_VALUE)))
+                    .flatMap(this::write, concurrency)
+                    .then()
+                    .block(Duration.ofSeconds(10));
+        } catch (Exception e) {
+            logger.warn("No se pudieron persistir {} tokens pendientes al cerrar: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Persiste el token emitido para un usuario.
+     *
+     * @param userId el id del usuario.
+     * @param token  el token JWT emitido.
+     * @return un {@link Mono} que se completa cuando el token se ha persistido (modo síncrono)
+     *         o encolado (modo write-behind).
+     */
+    public Mono<Void> persist(String userId, String token) {
+        if (!writeBehind) {
+            return authorizationClient.updateUserToken(userId, token).then();
+        }
+        if (pending.size() >= maxPending && !pending.containsKey(userId) && !inFlight.contains(userId)) {
+            backpressureCounter.increment();
+            return authorizationClient.updateUserToken(userId, token).then();
+        }
+        pending.put(userId, token);
+        if (pending.size() >= batchSize) {
+            flushRequests.tryEmitNext(true);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Envía un lote de actualizaciones pendientes.
+     */
+    private Mono<Void> flushBatch() {
+        List<TokenUpdate> batch = drain(batchSize);
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(batch)
+                .flatMap(this::write, concurrency)
+                .then(Mono.fromRunnable(() -> {
+                    if (pending.size() >= batchSize) {
+                        flushRequests.tryEmitNext(true);
+                    }
+                }));
+    }
+
+    /**
+     * Extrae del búfer hasta {@code limit} actualizaciones y las marca como en curso. Cada entrada se retira
+     * solo si no fue reemplazada por un token más reciente mientras tanto.
+     */
+    private List<TokenUpdate> drain(int limit) {
+        List<TokenUpdate> batch = new ArrayList<>(Math.min(limit, pending.size()));
+        Iterator<Map.Entry<String, String>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < limit) {
+            Map.Entry<String, String> entry = iterator.next();
+            // Se marca antes de retirarla para que persist() nunca vea al usuario fuera de ambos conjuntos
+            inFlight.add(entry.getKey());
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(new TokenUpdate(entry.getKey(), entry.getValue()));
+            } else {
+                inFlight.remove(entry.getKey());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Persiste una actualización reintentando solo los errores transitorios (errores de conexión, tiempos
+     * de espera y respuestas 5xx); si falla de otro modo o se agotan los reintentos, se descarta y se registra.
+     */
+    private Mono<Void> write(TokenUpdate update) {
+        return authorizationClient.updateUserToken(update.userId(), update.token())
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff).jitter(0.5).filter(ResiliencePolicy::isTransient))
+                .doOnSuccess(result -> flushedCounter.increment())
+                .onErrorResume(e -> {
+                    droppedCounter.increment();
+                    logger.warn("No se pudo persistir el token del usuario {}: {}", update.userId(), e.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> inFlight.remove(update.userId()))
+                .then();
+    }
+
+    /**
+     * Actualización de token pendiente.
+     *
+     * @param userId el id del usuario.
+     * @param token  el último token emitido.
+     */
+    private record TokenUpdate(String userId, String token) {
+    }
+}
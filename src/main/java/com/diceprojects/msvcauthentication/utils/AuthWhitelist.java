@@ -7,6 +7,7 @@ public class AuthWhitelist {
 
     /**
      * Lista de rutas permitidas sin necesidad de autenticación.
+     * De Actuator solo se publican las sondas de salud; las métricas requieren autenticación.
      */
     public static final String[] AUTH_WHITELIST = {
             "/swagger-ui.html",
@@ -14,6 +15,7 @@ public class AuthWhitelist {
             "/swagger-ui/**",
             "/v3/api-docs/**",
             "/swagger-resources/**",
+            "/actuator/health/**",
             "/api/**"
     };
 }
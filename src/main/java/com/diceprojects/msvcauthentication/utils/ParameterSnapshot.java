@@ -0,0 +1,111 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.ParameterDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vista inmutable de todos los parámetros de msvc-configurations en un instante dado.
+ * Los valores con formato de objeto JSON se convierten a {@code Map<String, String>} una sola vez,
+ * al construir la instantánea, para que las lecturas posteriores no impliquen parseo ni E/S.
+ */
+public final class ParameterSnapshot {
+
+    /**
+     * Instantánea vacía utilizada antes de la primera carga.
+     */
+    public static final ParameterSnapshot EMPTY = new ParameterSnapshot(Map.of(), Map.of(), null);
+
+    private static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() {
+    };
+
+    private final Map<String, ParameterDTO> parameters;
+    private final Map<String, Map<String, String>> values;
+    private final Instant loadedAt;
+
+    private ParameterSnapshot(Map<String, ParameterDTO> parameters, Map<String, Map<String, String>> values, Instant loadedAt) {
+        this.parameters = parameters;
+        this.values = values;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Construye una instantánea a partir de la lista completa de parámetros.
+     *
+     * @param parameters   los parámetros obtenidos de msvc-configurations.
+     * @param objectMapper el mapeador utilizado para convertir los valores JSON.
+     * @return la nueva instantánea.
+     */
+    public static ParameterSnapshot of(Collection<ParameterDTO> parameters, ObjectMapper objectMapper) {
+        Map<String, ParameterDTO> byName = new HashMap<>();
+        Map<String, Map<String, String>> parsed = new HashMap<>();
+        for (ParameterDTO parameter : parameters) {
+            if (parameter.getParameterName() == null) {
+                continue;
+            }
+            byName.put(parameter.getParameterName(), parameter);
+            String value = parameter.getValue();
+            if (value != null && value.trim().startsWith("{")) {
+                try {
+                    parsed.put(parameter.getParameterName(), Map.copyOf(objectMapper.readValue(value, STRING_MAP)));
+                } catch (Exception e) {
+                    // El valor no es un objeto JSON plano: solo queda disponible como texto.
+                }
+            }
+        }
+        return new ParameterSnapshot(Map.copyOf(byName), Map.copyOf(parsed), Instant.now());
+    }
+
+    /**
+     * Indica si la instantánea procede de una carga real.
+     *
+     * @return {@code true} si los parámetros ya se cargaron al menos una vez.
+     */
+    public boolean isLoaded() {
+        return loadedAt != null;
+    }
+
+    /**
+     * Obtiene el instante de carga de la instantánea.
+     *
+     * @return el instante de carga, o {@code null} si aún no se cargó.
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Obtiene un parámetro por su nombre.
+     *
+     * @param name el nombre del parámetro.
+     * @return el parámetro, si existe.
+     */
+    public Optional<ParameterDTO> get(String name) {
+        return Optional.ofNullable(parameters.get(name));
+    }
+
+    /**
+     * Obtiene el valor de un parámetro convertido a mapa, si su valor es un objeto JSON.
+     *
+     * @param name el nombre del parámetro.
+     * @return el mapa de valores, si el parámetro existe y es un objeto JSON.
+     */
+    public Optional<Map<String, String>> getValues(String name) {
+        return Optional.ofNullable(values.get(name));
+    }
+
+    /**
+     * Obtiene el número de parámetros de la instantánea.
+     *
+     * @return el número de parámetros.
+     */
+    public int size() {
+        return parameters.size();
+    }
+}
@@ -0,0 +1,165 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import com.diceprojects.msvcauthentication.clients.ConfigurationClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio que mantiene en memoria una instantánea de todos los parámetros de msvc-configurations.
+ * Carga los parámetros con una única llamada a {@link ConfigurationClient#getAllParameters()} al arrancar,
+ * los refresca en segundo plano con el intervalo configurado y publica cada nueva {@link ParameterSnapshot}
+ * de forma atómica. Las lecturas en caminos críticos son búsquedas en memoria, sin E/S.
+ */
+@Service
+public class ParameterSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParameterSnapshotService.class);
+
+    private final ConfigurationClient configurationClient;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshInterval;
+    private final AtomicReference<ParameterSnapshot> snapshot = new AtomicReference<>(ParameterSnapshot.EMPTY);
+    private final AtomicReference<Mono<ParameterSnapshot>> inFlight = new AtomicReference<>();
+    private Disposable refreshLoop;
+
+    /**
+     * Constructor de ParameterSnapshotService.
+     *
+     * @param configurationClient el cliente para acceder a los parámetros de configuración.
+     * @param objectMapper        el mapeador de objetos para el procesamiento de JSON.
+     * @param refreshIntervalMs   intervalo (en milisegundos) entre refrescos en segundo plano.
+     * @param meterRegistry       registro de métricas.
+     */
+    public ParameterSnapshotService(ConfigurationClient configurationClient, ObjectMapper objectMapper,
+                                    @Value("${msvc.configurations.snapshot.refreshIntervalMs:60000}") long refreshIntervalMs,
+                                    MeterRegistry meterRegistry) {
+        this.configurationClient = configurationClient;
+        this.objectMapper = objectMapper;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMs);
+
+        Gauge.builder("parameters.snapshot.size", snapshot, reference -> reference.get().size())
+                .description("Parámetros en la instantánea en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia la carga inicial y el refresco periódico de la instantánea.
+     */
+    @PostConstruct
+    public void start() {
+        refreshLoop = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(e -> {
+                            logger.warn("No se pudo refrescar la instantánea de parámetros: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Detiene el refresco periódico.
+     */
+    @PreDestroy
+    public void stop() {
+        if (refreshLoop != null) {
+            refreshLoop.dispose();
+        }
+    }
+
+    /**
+     * Obtiene la instantánea vigente sin realizar ninguna E/S.
+     *
+     * @return la instantánea vigente (vacía si aún no se cargó).
+     */
+    public ParameterSnapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * Obtiene la instantánea vigente, esperando a la carga inicial si todavía no se produjo.
+     *
+     * @return un {@link Mono} que emite una instantánea cargada.
+     */
+    public Mono<ParameterSnapshot> ready() {
+        ParameterSnapshot current = snapshot.get();
+        return current.isLoaded() ? Mono.just(current) : refresh();
+    }
+
+    /**
+     * Obtiene los valores de un parámetro con formato de objeto JSON.
+     * Si la instantánea aún no pudo cargarse, se consulta el parámetro individualmente.
+     *
+     * @param name el nombre del parámetro.
+     * @return un {@link Mono} que emite el mapa de valores, o vacío si el parámetro no existe.
+     */
+    public Mono<Map<String, String>> getValues(String name) {
+        return ready()
+                .flatMap(loaded -> Mono.justOrEmpty(loaded.getValues(name)))
+                .onErrorResume(e -> configurationClient.getParameterByName(name)
+                        .map(parameter -> ParameterSnapshot.of(List.of(parameter), objectMapper))
+                        .flatMap(single -> Mono.justOrEmpty(single.getValues(name))));
+    }
+
+    /**
+     * Obtiene el valor en texto de un parámetro.
+     * Si la instantánea aún no pudo cargarse, se consulta el parámetro individualmente.
+     *
+     * @param name el nombre del parámetro.
+     * @return un {@link Mono} que emite el valor, o vacío si el parámetro no existe.
+     */
+    public Mono<String> getValue(String name) {
+        return ready()
+                .flatMap(loaded -> Mono.justOrEmpty(loaded.get(name)))
+                .onErrorResume(e -> configurationClient.getParameterByName(name))
+                .flatMap(parameter -> Mono.justOrEmpty(parameter.getValue()));
+    }
+
+    /**
+     * Carga todos los parámetros y publica una nueva instantánea. Las cargas concurrentes comparten
+     * una única llamada remota.
+     *
+     * @return un {@link Mono} que emite la nueva instantánea.
+     */
+    public Mono<ParameterSnapshot> refresh() {
+        return Mono.defer(() -> {
+            while (true) {
+                Mono<ParameterSnapshot> current = inFlight.get();
+                if (current != null) {
+                    return current;
+                }
+                Sinks.One<ParameterSnapshot> sink = Sinks.one();
+                Mono<ParameterSnapshot> shared = sink.asMono();
+                if (inFlight.compareAndSet(null, shared)) {
+                    configurationClient.getAllParameters()
+                            .collectList()
+                            .map(parameters -> publish(ParameterSnapshot.of(parameters, objectMapper)))
+                            .doFinally(signal -> inFlight.compareAndSet(shared, null))
+                            .subscribe(sink::tryEmitValue, sink::tryEmitError);
+                    return shared;
+                }
+            }
+        });
+    }
+
+    private ParameterSnapshot publish(ParameterSnapshot loaded) {
+        snapshot.set(loaded);
+        return loaded;
+    }
+}
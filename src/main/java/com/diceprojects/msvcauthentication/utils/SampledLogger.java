@@ -0,0 +1,61 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de avisos limitado en frecuencia, para eventos que pueden llegar en ráfagas (por ejemplo, tokens
+ * inválidos). En cada intervalo se registran como mucho {@code maxPerInterval} mensajes; el resto se descarta
+ * y se contabiliza, y el primer mensaje del intervalo siguiente informa de cuántos se omitieron.
+ * Los mensajes se registran sin pila de llamadas.
+ */
+public final class SampledLogger {
+
+    private final Logger logger;
+    private final int maxPerInterval;
+    private final long intervalNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Crea un registro limitado sobre el logger indicado.
+     *
+     * @param logger         el logger de destino.
+     * @param maxPerInterval número máximo de mensajes por intervalo; {@code 0} desactiva el registro.
+     * @param intervalMs     duración (en milisegundos) de cada intervalo.
+     */
+    public SampledLogger(Logger logger, int maxPerInterval, long intervalMs) {
+        this.logger = logger;
+        this.maxPerInterval = maxPerInterval;
+        this.intervalNanos = intervalMs * 1_000_000L;
+    }
+
+    /**
+     * Registra un aviso si el intervalo actual aún admite mensajes.
+     *
+     * @param format el formato del mensaje, con marcadores {@code {}}.
+     * @param args   los argumentos del mensaje.
+     */
+    public void warn(String format, Object... args) {
+        if (maxPerInterval <= 0 || !logger.isWarnEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            logged.set(0);
+        }
+        if (logged.incrementAndGet() > maxPerInterval) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long omitted = suppressed.getAndSet(0);
+        if (omitted > 0) {
+            logger.warn("{} avisos similares omitidos en el intervalo anterior", omitted);
+        }
+        logger.warn(format, args);
+    }
+}
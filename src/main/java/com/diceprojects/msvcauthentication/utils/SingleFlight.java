@@ -0,0 +1,67 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las ejecuciones concurrentes de una misma operación por clave ("single flight").
+ * La primera suscripción para una clave inicia el trabajo; las que llegan mientras sigue en curso
+ * se suscriben al mismo resultado pendiente. En cuanto el trabajo termina, con éxito o con error,
+ * la clave se libera y la siguiente llamada vuelve a ejecutarlo: no es una caché.
+ *
+ * @param <K> el tipo de la clave.
+ * @param <V> el tipo del resultado.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Ejecuta la operación para la clave indicada o se une a la que ya está en curso.
+     *
+     * @param key  la clave que identifica la operación.
+     * @param work el proveedor de la operación; solo se invoca si no hay otra en curso para la clave.
+     * @return un {@link Mono} que emite el resultado compartido.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> work) {
+        return Mono.defer(() -> {
+            Mono<V> pending = inFlight.get(key);
+            if (pending != null) {
+                joined.increment();
+                return pending;
+            }
+            return inFlight.computeIfAbsent(key, k -> {
+                AtomicReference<Mono<V>> self = new AtomicReference<>();
+                Mono<V> shared = Mono.defer(work)
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .cache();
+                self.set(shared);
+                return shared;
+            });
+        });
+    }
+
+    /**
+     * Obtiene el número acumulado de llamadas que se unieron a una operación ya en curso.
+     *
+     * @return las llamadas atendidas sin ejecutar el trabajo.
+     */
+    public long joined() {
+        return joined.sum();
+    }
+
+    /**
+     * Obtiene el número de operaciones en curso.
+     *
+     * @return el número de claves con una operación pendiente.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
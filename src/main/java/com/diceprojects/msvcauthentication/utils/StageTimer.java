@@ -0,0 +1,136 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import com.diceprojects.msvcauthentication.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Temporizador de una etapa de una cadena reactiva (por ejemplo, la consulta del usuario durante el inicio de
+ * sesión). Mide desde la suscripción hasta la señal final y la registra en un {@link Timer} con histograma de
+ * percentiles, etiquetado con {@code stage} y {@code outcome}.
+ * <p>
+ * Hay un {@link Timer} por resultado; se registra la primera vez que aparece ese resultado y después se
+ * reutiliza, por lo que la ruta crítica no consulta el registro de métricas.
+ */
+public final class StageTimer {
+
+    /**
+     * Resultado de una etapa, publicado en la etiqueta {@code outcome}.
+     */
+    public enum Outcome {
+        SUCCESS("success"),
+        EMPTY("empty"),
+        REJECTED("rejected"),
+        OVERLOADED("overloaded"),
+        ERROR("error"),
+        CANCELLED("cancelled");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * Obtiene el valor de la etiqueta {@code outcome}.
+         *
+         * @return el valor de la etiqueta.
+         */
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * Clasifica un error: los rechazos del cliente (credenciales o tokens inválidos, respuestas 4xx)
+         * se distinguen de la saturación del servicio y del resto de fallos.
+         *
+         * @param error el error emitido por la etapa.
+         * @return el resultado correspondiente.
+         */
+        public static Outcome of(Throwable error) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            if (error instanceof ServiceOverloadedException) {
+                return OVERLOADED;
+            }
+            if (error instanceof AuthenticationException
+                    || (error instanceof ResponseStatusException status && status.getStatusCode().is4xxClientError())
+                    || (cause instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError())) {
+                return REJECTED;
+            }
+            return ERROR;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final String name;
+    private final String stage;
+    private final String description;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(Outcome.values().length);
+
+    /**
+     * Crea el temporizador de una etapa.
+     *
+     * @param name          el nombre de la métrica, compartido por todas las etapas de un mismo flujo.
+     * @param stage         el valor de la etiqueta {@code stage}.
+     * @param description   la descripción de la métrica.
+     * @param meterRegistry el registro de métricas.
+     */
+    public StageTimer(String name, String stage, String description, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.stage = stage;
+        this.description = description;
+    }
+
+    /**
+     * Mide una etapa. El {@link Mono} indicado no se modifica: solo se observan sus señales.
+     *
+     * @param source la etapa a medir.
+     * @param <T>    el tipo del resultado.
+     * @return la etapa instrumentada.
+     */
+    public <T> Mono<T> time(Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source
+                    .doOnSuccess(value -> record(value != null ? Outcome.SUCCESS : Outcome.EMPTY, start))
+                    .doOnError(error -> record(Outcome.of(error), start))
+                    .doOnCancel(() -> record(Outcome.CANCELLED, start));
+        });
+    }
+
+    /**
+     * Registra una duración ya medida.
+     *
+     * @param outcome el resultado de la etapa.
+     * @param start   el instante de inicio según {@link System#nanoTime()}.
+     */
+    public void record(Outcome outcome, long start) {
+        timer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(Outcome outcome) {
+        Timer timer = timers.get(outcome.ordinal());
+        if (timer == null) {
+            // El registro devuelve siempre la misma instancia, por lo que una carrera aquí es inocua
+            timer = Timer.builder(name)
+                    .description(description)
+                    .tag("stage", stage)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            timers.set(outcome.ordinal(), timer);
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,154 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import com.diceprojects.msvcauthentication.support.StubAuthorizationServer;
+import com.diceprojects.msvcauthentication.support.StubAuthorizationServer.Fault;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationClientResilienceTest {
+
+    private StubAuthorizationServer stub;
+    private ResilienceProperties properties;
+    private ResiliencePolicy policy;
+    private AuthorizationClient client;
+
+    @BeforeEach
+    void setUp() {
+        stub = StubAuthorizationServer.start().withUser("alice", "hash", "ADMIN");
+        properties = new ResilienceProperties();
+        properties.getRetry().setBackoffMs(5);
+        properties.getRetry().setMaxBackoffMs(20);
+        properties.getBreaker().setSlidingWindowSize(4);
+        properties.getBreaker().setMinimumNumberOfCalls(4);
+        properties.getBreaker().setWaitDurationInOpenStateMs(60000);
+        properties.getHedge().setMinSamples(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private void buildClient() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        policy = new ResiliencePolicy("msvc-authorization", properties, meterRegistry);
+        UserDetailsCache cache = new UserDetailsCache(false, 60000, 30000, 100, meterRegistry);
+        client = new AuthorizationClient(stub.baseUrl(), 3000, WebClient.builder(), cache, policy);
+    }
+
+    @Test
+    void retriesTransientFailures() {
+        buildClient();
+        stub.enqueue(Fault.error(503), Fault.error(503));
+
+        StepVerifier.create(client.getUserByUsername("alice"))
+                .assertNext(user -> assertEquals("id-alice", user.getId()))
+                .verifyComplete();
+        assertEquals(3, stub.userRequestCount());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        buildClient();
+
+        StepVerifier.create(client.getUserByUsername("unknown"))
+                .expectError()
+                .verify();
+        assertEquals(1, stub.userRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, policy.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void retryBudgetLimitsRetries() {
+        properties.getRetry().setMaxRetries(3);
+        properties.getRetry().setBudgetRatio(0);
+        properties.getRetry().setBudgetMaxRetries(1);
+        buildClient();
+        stub.setDefaultFault(Fault.error(503));
+
+        StepVerifier.create(client.getUserByUsername("alice")).expectError().verify();
+        assertEquals(2, stub.userRequestCount());
+
+        StepVerifier.create(client.getUserByUsername("alice")).expectError().verify();
+        assertEquals(3, stub.userRequestCount());
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        properties.getRetry().setMaxRetries(0);
+        buildClient();
+        stub.setDefaultFault(Fault.error(500));
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(client.getUserByUsername("alice")).expectError().verify();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitBreaker().getState());
+
+        StepVerifier.create(client.getUserByUsername("alice"))
+                .expectErrorSatisfies(e -> assertInstanceOf(CallNotPermittedException.class, e.getCause()))
+                .verify();
+        assertEquals(4, stub.userRequestCount());
+    }
+
+    @Test
+    void opensCircuitOnSlowCalls() {
+        properties.getBreaker().setSlowCallDurationMs(100);
+        properties.getBreaker().setSlowCallRateThreshold(50);
+        buildClient();
+        stub.setDefaultFault(Fault.delay(200));
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(client.getUserByUsername("alice")).expectNextCount(1).verifyComplete();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void hedgesSlowReads() {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinDelayMs(50);
+        buildClient();
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(client.getUserByUsername("alice")).expectNextCount(1).verifyComplete();
+        }
+
+        stub.enqueue(Fault.delay(2000));
+        long start = System.nanoTime();
+        StepVerifier.create(client.getUserByUsername("alice"))
+                .expectNextCount(1)
+                .verifyComplete();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(elapsed.compareTo(Duration.ofMillis(1000)) < 0, "la segunda solicitud debe responder antes: " + elapsed);
+        assertEquals(7, stub.userRequestCount());
+    }
+
+    @Test
+    void doesNotHedgeAfterThePrimaryFails() throws InterruptedException {
+        properties.getRetry().setMaxRetries(0);
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinDelayMs(100);
+        buildClient();
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(client.getUserByUsername("alice")).expectNextCount(1).verifyComplete();
+        }
+
+        stub.enqueue(Fault.error(503));
+        StepVerifier.create(client.getUserByUsername("alice")).expectError().verify();
+        Thread.sleep(300);
+
+        assertEquals(6, stub.userRequestCount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.diceprojects.msvcauthentication.clients;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserDetailsCacheTest {
+
+    @Test
+    void refreshStartedBeforeInvalidationDoesNotRestoreTheOldValue() {
+        UserDetailsCache cache = new UserDetailsCache(true, 60000, 0, 100, new SimpleMeterRegistry());
+        Sinks.One<UserDetailsDTO> refresh = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, Mono<UserDetailsDTO>> loader = username -> switch (calls.incrementAndGet()) {
+            case 1 -> Mono.just(user("v1"));
+            case 2 -> refresh.asMono();
+            case 3 -> Mono.just(user("v3"));
+            default -> Mono.never();
+        };
+
+        // Con refreshAfterMs = 0 la primera lectura ya lanza la recarga en segundo plano, que queda pendiente
+        StepVerifier.create(cache.get("alice", loader))
+                .assertNext(user -> assertEquals("v1", user.getId()))
+                .verifyComplete();
+        cache.invalidate("alice");
+        refresh.tryEmitValue(user("v2"));
+
+        StepVerifier.create(cache.get("alice", loader))
+                .assertNext(user -> assertEquals("v3", user.getId()))
+                .verifyComplete();
+        assertEquals(4, calls.get());
+    }
+
+    private static UserDetailsDTO user(String id) {
+        return new UserDetailsDTO(id, "alice", "hash", "ACTIVE", Set.of());
+    }
+}
@@ -0,0 +1,71 @@
+package com.diceprojects.msvcauthentication.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AuthEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void returnsSourceUnchangedWhenNotRecording() {
+        Mono<String> source = Mono.just("ring");
+
+        assertSame(source, AuthEvent.record(KeyRingEvent.PROBE, () -> new KeyRingEvent("rotate"), source,
+                (event, ring) -> event.setRing(1, "HS512")));
+    }
+
+    @Test
+    void recordsOutcomeAndFieldsWhileRecording() throws Exception {
+        Path dump = tempDir.resolve("auth.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(KeyRingEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(PasswordCheckEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+
+            StepVerifier.create(AuthEvent.record(KeyRingEvent.PROBE, () -> new KeyRingEvent("bootstrap"),
+                            Mono.just("ring"), (event, ring) -> event.setRing(2, "ES256")))
+                    .expectNext("ring")
+                    .verifyComplete();
+            StepVerifier.create(AuthEvent.record(KeyRingEvent.PROBE, () -> new KeyRingEvent("rotate"),
+                            Mono.<String>error(new IllegalStateException("caído")), (event, ring) -> event.setRing(2, "ES256")))
+                    .verifyError();
+            PasswordCheckEvent passwordCheck = new PasswordCheckEvent();
+            passwordCheck.begin();
+            passwordCheck.commit(false, "$2a$12$abcdefghijklmnopqrstuv");
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent bootstrap = event(events, "com.diceprojects.auth.KeyRing", "operation", "bootstrap");
+        assertEquals("success", bootstrap.getString("outcome"));
+        assertEquals(2, bootstrap.getInt("keys"));
+        assertEquals("ES256", bootstrap.getString("algorithm"));
+        assertEquals("error", event(events, "com.diceprojects.auth.KeyRing", "operation", "rotate").getString("outcome"));
+
+        RecordedEvent passwordCheckEvent = event(events, "com.diceprojects.auth.PasswordCheck", "outcome", "mismatch");
+        assertEquals(12, passwordCheckEvent.getInt("cost"));
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, String type, String field, String value) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(type) && value.equals(event.getString(field)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Sin evento " + type + " con " + field + "=" + value));
+    }
+}
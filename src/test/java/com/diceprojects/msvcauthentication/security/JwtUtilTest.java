@@ -0,0 +1,113 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.support.JwtFixtures;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtUtilTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KeyRing keyRing = JwtFixtures.keyRing("k1");
+    private final KeyRingManager keyRingManager = JwtFixtures.keyRingManager(keyRing);
+    private final TokenDenylist tokenDenylist = Mockito.mock(TokenDenylist.class);
+    private final TokenEpochRegistry tokenEpochRegistry = JwtFixtures.noEpochs();
+    private final JwtUtil jwtUtil = JwtFixtures.jwtUtil(keyRingManager, tokenDenylist, tokenEpochRegistry, 10, meterRegistry);
+
+    @Test
+    void acceptsTokensItIssued() {
+        String token = jwtUtil.generateToken(JwtFixtures.user("alice")).block();
+
+        StepVerifier.create(jwtUtil.verify(token))
+                .assertNext(verification -> {
+                    assertEquals(TokenStatus.VALID, verification.status());
+                    assertEquals("alice", verification.claims().getSubject());
+                })
+                .verifyComplete();
+        assertEquals(1, verifications(TokenStatus.VALID));
+    }
+
+    @Test
+    void mapsParserFailuresToStatuses() {
+        Instant now = Instant.now();
+        KeyRing.SigningKey active = keyRing.activeKey(now);
+        String expired = Jwts.builder()
+                .header().keyId(active.kid()).and()
+                .subject("alice")
+                .issuedAt(Date.from(now.minusSeconds(120)))
+                .expiration(Date.from(now.minusSeconds(60)))
+                .signWith(active.signingKey())
+                .compact();
+        String forged = Jwts.builder()
+                .header().keyId(active.kid()).and()
+                .subject("alice")
+                .expiration(Date.from(now.plusSeconds(60)))
+                .signWith(SigningAlgorithm.HS512.generate(active.kid(), now).signingKey())
+                .compact();
+        String unknownKid = Jwts.builder()
+                .header().keyId("unknown").and()
+                .subject("alice")
+                .expiration(Date.from(now.plusSeconds(60)))
+                .signWith(SigningAlgorithm.HS512.generate("unknown", now).signingKey())
+                .compact();
+
+        assertStatus(expired, TokenStatus.EXPIRED);
+        assertStatus(forged, TokenStatus.BAD_SIGNATURE);
+        assertStatus(unknownKid, TokenStatus.BAD_SIGNATURE);
+        assertStatus("not.a.token", TokenStatus.MALFORMED);
+        assertEquals(2, verifications(TokenStatus.BAD_SIGNATURE));
+    }
+
+    @Test
+    void rejectsMalformedStringsBeforeParsing() {
+        assertStatus(null, TokenStatus.MALFORMED);
+        assertStatus("", TokenStatus.MALFORMED);
+        assertStatus("not-a-jwt", TokenStatus.MALFORMED);
+        assertStatus("a.b.c.d", TokenStatus.MALFORMED);
+        assertStatus("a.b." + "c".repeat(8192), TokenStatus.MALFORMED);
+
+        verify(keyRingManager, never()).keyRing();
+        assertEquals(5, verifications(TokenStatus.MALFORMED));
+    }
+
+    @Test
+    void rejectsRevokedTokens() {
+        when(tokenDenylist.mightBeRevoked(anyString(), any())).thenReturn(true);
+        when(tokenDenylist.isRevoked(anyString(), any())).thenReturn(Mono.just(true));
+        String token = jwtUtil.generateToken(JwtFixtures.user("alice")).block();
+
+        assertStatus(token, TokenStatus.REVOKED);
+    }
+
+    @Test
+    void rejectsSupersededTokens() {
+        when(tokenEpochRegistry.isSuperseded(any())).thenReturn(Mono.just(true));
+        String token = jwtUtil.generateToken(JwtFixtures.user("alice")).block();
+
+        assertStatus(token, TokenStatus.SUPERSEDED);
+        verify(tokenDenylist, never()).isRevoked(anyString(), any());
+    }
+
+    private void assertStatus(String token, TokenStatus expected) {
+        StepVerifier.create(jwtUtil.verify(token))
+                .assertNext(verification -> assertEquals(expected, verification.status()))
+                .verifyComplete();
+    }
+
+    private double verifications(TokenStatus status) {
+        return meterRegistry.get("jwt.verifications").tag("result", status.getTag()).counter().count();
+    }
+}
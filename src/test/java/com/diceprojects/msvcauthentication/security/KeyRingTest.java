@@ -0,0 +1,102 @@
+package com.diceprojects.msvcauthentication.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyRingTest {
+
+    private static final long EXPIRATION_MS = 60000;
+
+    private static KeyRing.SigningKey key(String kid, Instant activateAt) {
+        return SigningAlgorithm.HS512.generate(kid, activateAt);
+    }
+
+    private static String sign(KeyRing.SigningKey key, boolean withKid) {
+        var builder = Jwts.builder().subject("alice");
+        if (withKid) {
+            builder.header().keyId(key.kid());
+        }
+        return builder.signWith(key.signingKey()).compact();
+    }
+
+    @Test
+    void tokensSignedBeforeRotationKeepValidating() {
+        Instant now = Instant.now();
+        KeyRing.SigningKey first = key("k1", now.minusSeconds(10));
+        KeyRing ring = KeyRing.of(first, EXPIRATION_MS);
+        String issuedBefore = sign(first, true);
+
+        KeyRing rotated = ring.rotate(key("k2", now.plusSeconds(60)), now, Duration.ZERO);
+
+        assertEquals("k1", rotated.activeKey(now).kid());
+        assertTrue(rotated.hasPendingKey(now));
+        assertEquals("k2", rotated.activeKey(now.plusSeconds(61)).kid());
+        assertEquals("alice", rotated.parser().parseSignedClaims(issuedBefore).getPayload().getSubject());
+        assertEquals("alice", rotated.parser().parseSignedClaims(sign(rotated.activeKey(now.plusSeconds(61)), true))
+                .getPayload().getSubject());
+    }
+
+    @Test
+    void retiresOutgoingKeyAfterItsTokensExpire() {
+        Instant now = Instant.now();
+        KeyRing ring = KeyRing.of(key("k1", now.minusSeconds(10)), EXPIRATION_MS)
+                .rotate(key("k2", now), now, Duration.ofSeconds(5));
+
+        assertSame(ring, ring.withoutRetired(now.plusMillis(EXPIRATION_MS)));
+        KeyRing pruned = ring.withoutRetired(now.plusMillis(EXPIRATION_MS).plusSeconds(6));
+        assertFalse(pruned.contains("k1"));
+        assertTrue(pruned.contains("k2"));
+    }
+
+    @Test
+    void verifiesLegacyTokensWithoutKid() {
+        KeyRing.SigningKey legacy = key(KeyRing.LEGACY_KID, Instant.EPOCH);
+        KeyRing ring = KeyRing.fromDTO(KeyRing.of(legacy, EXPIRATION_MS).toDTO());
+
+        assertEquals("alice", ring.parser().parseSignedClaims(sign(legacy, false)).getPayload().getSubject());
+        assertThrows(UnsupportedJwtException.class,
+                () -> ring.parser().parseSignedClaims(sign(key("unknown", Instant.EPOCH), true)));
+    }
+
+    @Test
+    void persistsAndVerifiesAsymmetricKeys() {
+        for (SigningAlgorithm algorithm : new SigningAlgorithm[]{SigningAlgorithm.ES256, SigningAlgorithm.EdDSA}) {
+            KeyRing.SigningKey key = algorithm.generate("k-" + algorithm, Instant.EPOCH);
+            KeyRing ring = KeyRing.fromDTO(KeyRing.of(key, EXPIRATION_MS).toDTO());
+
+            KeyRing.SigningKey restored = ring.activeKey(Instant.now());
+            assertEquals(algorithm, restored.algorithm());
+            assertEquals("alice", ring.parser().parseSignedClaims(sign(restored, true)).getPayload().getSubject());
+        }
+    }
+
+    @Test
+    void publishesOnlyPublicKeysInJwks() {
+        Instant now = Instant.now();
+        KeyRing ring = KeyRing.of(key("hmac", now.minusSeconds(10)), EXPIRATION_MS)
+                .rotate(SigningAlgorithm.EdDSA.generate("ed", now.plusSeconds(60)), now, Duration.ZERO);
+        KeyRingManager keyRingManager = Mockito.mock(KeyRingManager.class);
+        Mockito.when(keyRingManager.keyRing()).thenReturn(Mono.just(ring));
+        JwkSetProvider provider = new JwkSetProvider(keyRingManager);
+
+        JwkSetProvider.JwkSetDocument document = provider.current().block();
+
+        assertTrue(document.json().contains("\"kid\":\"ed\""));
+        assertTrue(document.json().contains("\"alg\":\"EdDSA\""));
+        assertFalse(document.json().contains("hmac"));
+        assertFalse(document.json().contains("\"d\""));
+        assertSame(document, provider.current().block());
+    }
+}
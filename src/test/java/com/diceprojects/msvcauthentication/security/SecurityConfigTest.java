@@ -0,0 +1,76 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.controllers.AuthController;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.AuthResponse;
+import com.diceprojects.msvcauthentication.services.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SecurityConfigTest {
+
+    private static final String EXPIRED_BEARER = "Bearer expired.token.value";
+
+    private final JwtUtil jwtUtil = Mockito.mock(JwtUtil.class);
+    private final AuthService authService = Mockito.mock(AuthService.class);
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtUtil.verify(anyString())).thenReturn(Mono.just(TokenVerification.rejected(TokenStatus.EXPIRED)));
+        when(authService.authenticate(any())).thenReturn(Mono.just(new AuthResponse("user", "token", new Date(), "refresh")));
+        when(authService.refresh(any())).thenReturn(Mono.just(new AuthResponse("user", "token", new Date(), "next")));
+
+        SecurityConfig securityConfig = new SecurityConfig(jwtUtil);
+        client = WebTestClient.bindToController(new AuthController(authService))
+                .webFilter(new WebFilterChainProxy(securityConfig.securityWebFilterChain(ServerHttpSecurity.http())))
+                .build();
+    }
+
+    @Test
+    void expiredBearerStillReachesLogin() {
+        client.post().uri("/api/auth/login")
+                .header(HttpHeaders.AUTHORIZATION, EXPIRED_BEARER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"username\":\"user\",\"password\":\"secret\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.refreshToken").isEqualTo("refresh");
+
+        verify(authService).authenticate(any());
+    }
+
+    @Test
+    void expiredBearerStillReachesRefresh() {
+        client.post().uri("/api/auth/refresh")
+                .header(HttpHeaders.AUTHORIZATION, EXPIRED_BEARER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"refreshToken\":\"refresh\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.refreshToken").isEqualTo("next");
+
+        verify(authService).refresh(any());
+    }
+
+    @Test
+    void expiredBearerIsStillRejectedOnProtectedRoutes() {
+        client.get().uri("/private")
+                .header(HttpHeaders.AUTHORIZATION, EXPIRED_BEARER)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
@@ -0,0 +1,154 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.exceptions.InvalidTokenException;
+import com.diceprojects.msvcauthentication.persistences.models.entities.RevokedToken;
+import com.diceprojects.msvcauthentication.persistences.repositories.RevokedTokenRepository;
+import com.diceprojects.msvcauthentication.support.JwtFixtures;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenDenylistTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RevokedTokenRepository repository = Mockito.mock(RevokedTokenRepository.class);
+    private final KeyRing keyRing = JwtFixtures.keyRing("k1");
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(repository.existsById(anyString())).thenReturn(Mono.just(false));
+    }
+
+    private TokenDenylist denylist(long bucketMs) {
+        return new TokenDenylist(repository, Mockito.mock(ReactiveMongoTemplate.class), true, bucketMs, 1000, 0.01,
+                5000, 1000, meterRegistry);
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        TokenDenylist denylist = denylist(900_000);
+        JwtUtil jwtUtil = JwtFixtures.jwtUtil(keyRing, denylist, JwtFixtures.noEpochs(), 10, meterRegistry);
+        String token = jwtUtil.generateToken(JwtFixtures.user("alice")).block();
+        Claims claims = keyRing.parser().parseSignedClaims(token).getPayload();
+
+        StepVerifier.create(denylist.revoke(claims.getId(), claims.getExpiration())).verifyComplete();
+
+        StepVerifier.create(denylist.isRevoked(claims.getId(), claims.getExpiration())).expectNext(true).verifyComplete();
+        StepVerifier.create(jwtUtil.verifyToken(token))
+                .expectErrorSatisfies(e -> assertRejected(e, TokenStatus.REVOKED))
+                .verify();
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void revocationAppliesToTokensAlreadyInTheVerifiedCache() {
+        TokenDenylist denylist = denylist(900_000);
+        JwtUtil jwtUtil = JwtFixtures.jwtUtil(keyRing, denylist, JwtFixtures.noEpochs(), 10, meterRegistry);
+        String token = jwtUtil.generateToken(JwtFixtures.user("alice")).block();
+        Claims claims = jwtUtil.verifyToken(token).block();
+
+        StepVerifier.create(denylist.revoke(claims.getId(), claims.getExpiration())).verifyComplete();
+
+        StepVerifier.create(jwtUtil.verify(token))
+                .assertNext(verification -> assertEquals(TokenStatus.REVOKED, verification.status()))
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void confirmsEveryTokenInMongoBeforeTheFirstSync() {
+        TokenDenylist denylist = denylist(900_000);
+        JwtUtil jwtUtil = JwtFixtures.jwtUtil(keyRing, denylist, JwtFixtures.noEpochs(), 10, meterRegistry);
+        String revoked = jwtUtil.generateToken(JwtFixtures.user("alice")).block();
+        String failing = jwtUtil.generateToken(JwtFixtures.user("bob")).block();
+        Claims revokedClaims = keyRing.parser().parseSignedClaims(revoked).getPayload();
+        Claims failingClaims = keyRing.parser().parseSignedClaims(failing).getPayload();
+        // Revocados en otra instancia: esta aún no ha sincronizado
+        when(repository.existsById(revokedClaims.getId())).thenReturn(Mono.just(true));
+        when(repository.existsById(failingClaims.getId())).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+
+        assertTrue(denylist.mightBeRevoked(revokedClaims.getId(), revokedClaims.getExpiration()));
+        StepVerifier.create(jwtUtil.verifyToken(revoked))
+                .expectErrorSatisfies(e -> assertRejected(e, TokenStatus.REVOKED))
+                .verify();
+        StepVerifier.create(jwtUtil.verifyToken(failing))
+                .expectErrorSatisfies(e -> assertRejected(e, TokenStatus.REVOKED))
+                .verify();
+
+        when(repository.findByExpiresAtAfter(any())).thenReturn(Flux.empty());
+        StepVerifier.create(denylist.sync()).verifyComplete();
+        assertFalse(denylist.mightBeRevoked("other", failingClaims.getExpiration()));
+    }
+
+    @Test
+    void syncAddsRemoteRevocationsAndDropsExpiredBuckets() throws InterruptedException {
+        TokenDenylist denylist = denylist(100);
+        long now = System.currentTimeMillis();
+        Date shortLived = new Date(now + 150);
+        Date longLived = new Date(now + JwtFixtures.EXPIRATION_MS);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(Flux.just(revoked("remote", longLived)));
+        StepVerifier.create(denylist.revoke("local", shortLived)).verifyComplete();
+
+        StepVerifier.create(denylist.sync()).verifyComplete();
+        assertTrue(denylist.mightBeRevoked("local", shortLived));
+        assertTrue(denylist.mightBeRevoked("remote", longLived));
+        StepVerifier.create(denylist.isRevoked("remote", longLived)).expectNext(true).verifyComplete();
+
+        Thread.sleep(300);
+        when(repository.findByRevokedAtAfter(any())).thenReturn(Flux.empty());
+        StepVerifier.create(denylist.sync()).verifyComplete();
+
+        assertFalse(denylist.mightBeRevoked("local", shortLived));
+        assertTrue(denylist.mightBeRevoked("remote", longLived));
+        assertEquals(1, meterRegistry.get("auth.denylist.buckets").gauge().value());
+    }
+
+    @Test
+    void failsClosedWhenTheConfirmationLookupFails() throws InterruptedException {
+        TokenDenylist denylist = denylist(50);
+        Date expiresAt = new Date(System.currentTimeMillis() + JwtFixtures.EXPIRATION_MS);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(Flux.empty());
+        StepVerifier.create(denylist.sync()).verifyComplete();
+        StepVerifier.create(denylist.revoke("revoked", expiresAt)).verifyComplete();
+        // La confirmación en memoria caduca con la anchura de la franja; el filtro sigue respondiendo
+        Thread.sleep(150);
+        when(repository.existsById(anyString())).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+
+        StepVerifier.create(denylist.isRevoked("revoked", expiresAt)).expectNext(true).verifyComplete();
+        verify(repository).existsById("revoked");
+    }
+
+    private static RevokedToken revoked(String jti, Date expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(jti);
+        revokedToken.setExpiresAt(expiresAt);
+        revokedToken.setRevokedAt(new Date());
+        return revokedToken;
+    }
+
+    private static void assertRejected(Throwable error, TokenStatus status) {
+        InvalidTokenException exception = assertInstanceOf(InvalidTokenException.class, error);
+        assertEquals(status, exception.getTokenStatus());
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+}
@@ -0,0 +1,117 @@
+package com.diceprojects.msvcauthentication.security;
+
+import com.diceprojects.msvcauthentication.persistences.models.entities.TokenEpoch;
+import com.diceprojects.msvcauthentication.persistences.repositories.TokenEpochRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenEpochRegistryTest {
+
+    private static final long RETENTION_MS = 3_600_000;
+
+    private final TokenEpochRepository repository = Mockito.mock(TokenEpochRepository.class);
+    private final ReactiveMongoTemplate mongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+    private final TokenEpochRegistry registry =
+            new TokenEpochRegistry(repository, mongoTemplate, true, 5000, RETENTION_MS, new SimpleMeterRegistry());
+
+    @Test
+    void bumpSupersedesTokensIssuedBefore() {
+        Instant bumpedAt = Instant.now();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(TokenEpoch.class)))
+                .thenReturn(Mono.just(epoch("alice", 1, bumpedAt)));
+        when(repository.findByUpdatedAtAfter(any())).thenReturn(Flux.empty());
+        StepVerifier.create(registry.sync()).verifyComplete();
+
+        StepVerifier.create(registry.bump("alice")).expectNext(1L).verifyComplete();
+
+        StepVerifier.create(registry.isSuperseded(claims("alice", bumpedAt.minusSeconds(60)))).expectNext(true).verifyComplete();
+        StepVerifier.create(registry.isSuperseded(claims("alice", bumpedAt.plusSeconds(1)))).expectNext(false).verifyComplete();
+        StepVerifier.create(registry.isSuperseded(claims("bob", bumpedAt.minusSeconds(60)))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void tokensIssuedElsewhereAfterABumpAreValidBeforeThisInstanceSyncs() {
+        Instant bumpedAt = Instant.now().minusSeconds(30);
+        when(repository.findByUpdatedAtAfter(any()))
+                .thenReturn(Flux.empty())
+                .thenReturn(Flux.just(epoch("alice", 3, bumpedAt)));
+        StepVerifier.create(registry.sync()).verifyComplete();
+
+        // Otra instancia cerró las sesiones y emitió un token nuevo; esta aún no ha sincronizado
+        StepVerifier.create(registry.isSuperseded(claims("alice", Instant.now()))).expectNext(false).verifyComplete();
+
+        StepVerifier.create(registry.sync()).verifyComplete();
+        StepVerifier.create(registry.isSuperseded(claims("alice", bumpedAt.minusSeconds(1)))).expectNext(true).verifyComplete();
+        StepVerifier.create(registry.isSuperseded(claims("alice", Instant.now()))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void syncDropsBumpsOlderThanTheRetention() {
+        Instant stale = Instant.now().minusMillis(RETENTION_MS).minusSeconds(60);
+        when(repository.findByUpdatedAtAfter(any())).thenReturn(Flux.just(epoch("alice", 1, stale)));
+
+        StepVerifier.create(registry.sync()).verifyComplete();
+
+        StepVerifier.create(registry.isSuperseded(claims("alice", stale.minusSeconds(1)))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void looksUpMongoBeforeTheFirstSync() {
+        Instant bumpedAt = Instant.now().minusSeconds(10);
+        when(repository.findById("alice")).thenReturn(Mono.just(epoch("alice", 1, bumpedAt)));
+        when(repository.findById("bob")).thenReturn(Mono.empty());
+
+        StepVerifier.create(registry.isSuperseded(claims("alice", bumpedAt.minusSeconds(1)))).expectNext(true).verifyComplete();
+        StepVerifier.create(registry.isSuperseded(claims("bob", bumpedAt.minusSeconds(1)))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void rejectsTokensWhenTheLookupBeforeTheFirstSyncFails() {
+        when(repository.findById("alice")).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+
+        StepVerifier.create(registry.isSuperseded(claims("alice", Instant.now()))).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    void disabledRegistryNeverSupersedes() {
+        TokenEpochRegistry disabled =
+                new TokenEpochRegistry(repository, mongoTemplate, false, 5000, RETENTION_MS, new SimpleMeterRegistry());
+
+        StepVerifier.create(disabled.isSuperseded(claims("alice", Instant.now().minus(Duration.ofDays(1)))))
+                .expectNext(false)
+                .verifyComplete();
+        verify(repository, never()).findById(any(String.class));
+    }
+
+    private static TokenEpoch epoch(String username, long value, Instant updatedAt) {
+        TokenEpoch tokenEpoch = new TokenEpoch();
+        tokenEpoch.setId(username);
+        tokenEpoch.setEpoch(value);
+        tokenEpoch.setUpdatedAt(Date.from(updatedAt));
+        return tokenEpoch;
+    }
+
+    private static Claims claims(String username, Instant issuedAt) {
+        return Jwts.claims().subject(username).issuedAt(Date.from(issuedAt)).build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.diceprojects.msvcauthentication.services;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.diceprojects.msvcauthentication.persistences.models.entities.RefreshToken;
+import com.diceprojects.msvcauthentication.persistences.repositories.RefreshTokenRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de {@link RefreshTokenService} sobre una colección simulada en memoria: la plantilla y el repositorio
+ * de MongoDB aplican las mismas condiciones que las consultas reales sobre un mapa indexado por {@code _id}.
+ */
+class RefreshTokenServiceTest {
+
+    private static final UserDetailsDTO USER = new UserDetailsDTO("id-alice", "alice", "hash", "ACTIVE", Set.of());
+
+    private final Map<String, RefreshToken> collection = new ConcurrentHashMap<>();
+    private final RefreshTokenRepository repository = Mockito.mock(RefreshTokenRepository.class);
+    private final ReactiveMongoTemplate mongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.insert(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            collection.put(token.getId(), token);
+            return Mono.just(token);
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation -> Mono.justOrEmpty(collection.get(invocation.<String>getArgument(0))));
+        when(repository.deleteById(anyString())).thenAnswer(invocation -> Mono.fromRunnable(() -> collection.remove(invocation.<String>getArgument(0))));
+        when(repository.revokeFamily(anyString())).thenAnswer(invocation -> Mono.fromSupplier(() -> collection.values().stream()
+                .filter(token -> token.getFamilyId().equals(invocation.getArgument(0)) && !token.isRevoked())
+                .peek(token -> token.setRevoked(true))
+                .count()));
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(RefreshToken.class)))
+                .thenAnswer(invocation -> Mono.fromSupplier(() -> consumeIfUnused(invocation.getArgument(0))));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(RefreshToken.class)))
+                .thenAnswer(invocation -> Mono.fromSupplier(() -> releaseIfOurs(invocation.getArgument(0))));
+        service = new RefreshTokenService(repository, mongoTemplate, true, 1_209_600_000L, 2_592_000_000L, 200,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void consumesEachTokenOnlyOnce() {
+        String token = service.issue(USER).block();
+
+        StepVerifier.create(service.consume(token))
+                .assertNext(consumed -> assertEquals("alice", consumed.getUsername()))
+                .verifyComplete();
+        StepVerifier.create(service.consume(token))
+                .expectErrorSatisfies(e -> assertUnauthorized(e))
+                .verify();
+    }
+
+    @Test
+    void reuseRevokesTheWholeFamily() {
+        String first = service.issue(USER).block();
+        RefreshToken consumed = service.consume(first).block();
+        String second = service.rotate(consumed).block();
+
+        StepVerifier.create(service.consume(first)).expectError().verify();
+
+        verify(repository).revokeFamily(consumed.getFamilyId());
+        StepVerifier.create(service.consume(second))
+                .expectErrorSatisfies(e -> assertUnauthorized(e))
+                .verify();
+        assertTrue(collection.values().stream().allMatch(RefreshToken::isRevoked));
+    }
+
+    @Test
+    void releaseLetsTheClientRetryWithTheSameToken() {
+        String token = service.issue(USER).block();
+        RefreshToken consumed = service.consume(token).block();
+
+        StepVerifier.create(service.release(consumed)).verifyComplete();
+
+        StepVerifier.create(service.consume(token)).expectNextCount(1).verifyComplete();
+        verify(repository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void rollbackDiscardsTheSuccessorBeforeReleasing() {
+        String token = service.issue(USER).block();
+        RefreshToken consumed = service.consume(token).block();
+        String successor = service.rotate(consumed).block();
+
+        StepVerifier.create(service.rollback(consumed, successor)).verifyComplete();
+
+        assertEquals(1, collection.size());
+        StepVerifier.create(service.consume(successor)).expectError().verify();
+        StepVerifier.create(service.consume(token)).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void doesNotRotatePastTheFamilyLifetime() {
+        String token = service.issue(USER).block();
+        RefreshToken consumed = service.consume(token).block();
+        consumed.setFamilyExpiresAt(new Date(System.currentTimeMillis() - 1));
+
+        StepVerifier.create(service.rotate(consumed))
+                .expectErrorSatisfies(e -> assertUnauthorized(e))
+                .verify();
+    }
+
+    @Test
+    void issueGivesUpWhenMongoDoesNotAnswer() {
+        when(repository.insert(any(RefreshToken.class))).thenReturn(Mono.never());
+
+        StepVerifier.create(service.issue(USER))
+                .expectSubscription()
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+    }
+
+    private RefreshToken consumeIfUnused(Query query) {
+        RefreshToken token = collection.get((String) query.getQueryObject().get("_id"));
+        Date now = new Date();
+        if (token == null || token.getUsedAt() != null || token.isRevoked() || !token.getExpiresAt().after(now)) {
+            return null;
+        }
+        token.setUsedAt(now);
+        return token;
+    }
+
+    private UpdateResult releaseIfOurs(Query query) {
+        RefreshToken token = collection.get((String) query.getQueryObject().get("_id"));
+        if (token == null || token.getUsedAt() == null || !token.getUsedAt().equals(query.getQueryObject().get("usedAt"))) {
+            return UpdateResult.acknowledged(0, 0L, null);
+        }
+        token.setUsedAt(null);
+        return UpdateResult.acknowledged(1, 1L, null);
+    }
+
+    private static void assertUnauthorized(Throwable error) {
+        ResponseStatusException exception = assertInstanceOf(ResponseStatusException.class, error);
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+}
@@ -0,0 +1,112 @@
+package com.diceprojects.msvcauthentication.support;
+
+import com.diceprojects.msvcauthentication.clients.AuthorizationClient;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RoleDTO;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.diceprojects.msvcauthentication.security.JwtUtil;
+import com.diceprojects.msvcauthentication.security.KeyRing;
+import com.diceprojects.msvcauthentication.security.KeyRingManager;
+import com.diceprojects.msvcauthentication.security.SigningAlgorithm;
+import com.diceprojects.msvcauthentication.security.TokenDenylist;
+import com.diceprojects.msvcauthentication.security.TokenEpochRegistry;
+import com.diceprojects.msvcauthentication.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Construcción de un {@link JwtUtil} sobre un anillo de claves real, con el servicio de autorización simulado
+ * y la lista de tokens revocados y el registro de epochs indicados por cada prueba.
+ */
+public final class JwtFixtures {
+
+    /**
+     * Vida de los tokens emitidos por el anillo de claves de las pruebas.
+     */
+    public static final long EXPIRATION_MS = 3_600_000;
+
+    private JwtFixtures() {
+    }
+
+    /**
+     * Crea un usuario activo con un único rol.
+     *
+     * @param username el nombre del usuario.
+     * @return los detalles del usuario.
+     */
+    public static UserDetailsDTO user(String username) {
+        return new UserDetailsDTO("id-" + username, username, "hash", "ACTIVE",
+                Set.of(new RoleDTO("role-admin", "ADMIN", "ACTIVE")));
+    }
+
+    /**
+     * Crea un anillo con una única clave HS512 activa.
+     *
+     * @param kid el identificador de la clave.
+     * @return el anillo de claves.
+     */
+    public static KeyRing keyRing(String kid) {
+        return KeyRing.of(SigningAlgorithm.HS512.generate(kid, Instant.now().minusSeconds(1)), EXPIRATION_MS);
+    }
+
+    /**
+     * Crea un registro de epochs que no invalida ningún token.
+     *
+     * @return el registro simulado.
+     */
+    public static TokenEpochRegistry noEpochs() {
+        TokenEpochRegistry tokenEpochRegistry = Mockito.mock(TokenEpochRegistry.class);
+        Mockito.when(tokenEpochRegistry.isSuperseded(Mockito.any())).thenReturn(Mono.just(false));
+        return tokenEpochRegistry;
+    }
+
+    /**
+     * Crea un gestor de claves simulado que siempre devuelve el anillo indicado.
+     *
+     * @param keyRing el anillo de claves.
+     * @return el gestor simulado.
+     */
+    public static KeyRingManager keyRingManager(KeyRing keyRing) {
+        KeyRingManager keyRingManager = Mockito.mock(KeyRingManager.class);
+        Mockito.when(keyRingManager.keyRing()).thenReturn(Mono.just(keyRing));
+        Mockito.when(keyRingManager.current()).thenReturn(keyRing);
+        return keyRingManager;
+    }
+
+    /**
+     * Crea un {@link JwtUtil} con la caché de tokens verificados habilitada.
+     *
+     * @param keyRing            el anillo de claves.
+     * @param tokenDenylist      la lista de tokens revocados.
+     * @param tokenEpochRegistry el registro de epochs.
+     * @param rejectionLogMax    número máximo de rechazos que se registran por intervalo.
+     * @param meterRegistry      el registro de métricas.
+     * @return la utilidad JWT.
+     */
+    public static JwtUtil jwtUtil(KeyRing keyRing, TokenDenylist tokenDenylist, TokenEpochRegistry tokenEpochRegistry,
+                                  int rejectionLogMax, MeterRegistry meterRegistry) {
+        return jwtUtil(keyRingManager(keyRing), tokenDenylist, tokenEpochRegistry, rejectionLogMax, meterRegistry);
+    }
+
+    /**
+     * Crea un {@link JwtUtil} sobre el gestor de claves indicado, con la caché de tokens verificados habilitada.
+     *
+     * @param keyRingManager     el gestor de claves.
+     * @param tokenDenylist      la lista de tokens revocados.
+     * @param tokenEpochRegistry el registro de epochs.
+     * @param rejectionLogMax    número máximo de rechazos que se registran por intervalo.
+     * @param meterRegistry      el registro de métricas.
+     * @return la utilidad JWT.
+     */
+    public static JwtUtil jwtUtil(KeyRingManager keyRingManager, TokenDenylist tokenDenylist,
+                                  TokenEpochRegistry tokenEpochRegistry, int rejectionLogMax, MeterRegistry meterRegistry) {
+        AuthorizationClient authorizationClient = Mockito.mock(AuthorizationClient.class);
+        Mockito.when(authorizationClient.getUserByUsername(Mockito.anyString()))
+                .thenAnswer(invocation -> Mono.just(user(invocation.getArgument(0))));
+        return new JwtUtil(keyRingManager, authorizationClient, new VerifiedTokenCache(true, 1000, meterRegistry),
+                tokenDenylist, tokenEpochRegistry, false, 0, rejectionLogMax, 60_000, meterRegistry);
+    }
+}
@@ -0,0 +1,194 @@
+package com.diceprojects.msvcauthentication.support;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.RoleDTO;
+import com.diceprojects.msvcauthentication.persistences.models.dtos.UserDetailsDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor local que simula los endpoints de msvc-authorization usados por este servicio
+ * ({@code GET /api/user/{username}} y {@code PUT /api/user/updateToken/{userId}}),
+ * con inyección configurable de latencia y errores.
+ */
+public class StubAuthorizationServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, UserDetailsDTO> users = new ConcurrentHashMap<>();
+    private final Deque<Fault> scriptedFaults = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger userRequests = new AtomicInteger();
+    private final AtomicInteger tokenUpdates = new AtomicInteger();
+    private volatile Fault defaultFault = Fault.none();
+    private final DisposableServer server;
+
+    private StubAuthorizationServer() {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/user/{username}", (request, response) -> {
+                            userRequests.incrementAndGet();
+                            return respond(response, users.get(request.param("username")));
+                        })
+                        .put("/api/user/updateToken/{userId}", (request, response) -> {
+                            tokenUpdates.incrementAndGet();
+                            UserDetailsDTO user = users.values().stream()
+                                    .filter(candidate -> candidate.getId().equals(request.param("userId")))
+                                    .findFirst()
+                                    .orElse(null);
+                            return respond(response, user);
+                        }))
+                .bindNow();
+    }
+
+    /**
+     * Arranca un servidor en un puerto libre de localhost.
+     *
+     * @return el servidor arrancado.
+     */
+    public static StubAuthorizationServer start() {
+        return new StubAuthorizationServer();
+    }
+
+    /**
+     * Obtiene la URL base equivalente a {@code msvc.authorization.url}.
+     *
+     * @return la URL base del servidor.
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.port() + "/api";
+    }
+
+    /**
+     * Registra un usuario.
+     *
+     * @param username       el nombre de usuario.
+     * @param passwordHash   el hash BCrypt de la contraseña.
+     * @param roles          los nombres de los roles del usuario.
+     * @return este servidor.
+     */
+    public StubAuthorizationServer withUser(String username, String passwordHash, String... roles) {
+        Set<RoleDTO> roleSet = new LinkedHashSet<>();
+        Arrays.stream(roles).forEach(role -> roleSet.add(new RoleDTO("role-" + role, role, "ACTIVE")));
+        users.put(username, new UserDetailsDTO("id-" + username, username, passwordHash, "ACTIVE", roleSet));
+        return this;
+    }
+
+    /**
+     * Programa el comportamiento de las próximas solicitudes, en orden.
+     *
+     * @param faults los comportamientos a aplicar.
+     */
+    public void enqueue(Fault... faults) {
+        scriptedFaults.addAll(Arrays.asList(faults));
+    }
+
+    /**
+     * Define el comportamiento de las solicitudes sin comportamiento programado.
+     *
+     * @param fault el comportamiento por defecto.
+     */
+    public void setDefaultFault(Fault fault) {
+        this.defaultFault = fault;
+    }
+
+    /**
+     * Obtiene el número de consultas de usuario recibidas.
+     *
+     * @return el número de solicitudes {@code GET /api/user/{username}}.
+     */
+    public int userRequestCount() {
+        return userRequests.get();
+    }
+
+    /**
+     * Obtiene el número de actualizaciones de token recibidas.
+     *
+     * @return el número de solicitudes {@code PUT /api/user/updateToken/{userId}}.
+     */
+    public int tokenUpdateCount() {
+        return tokenUpdates.get();
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, UserDetailsDTO body) {
+        Fault fault = scriptedFaults.poll();
+        if (fault == null) {
+            fault = defaultFault;
+        }
+        int status = fault.isTriggered() ? fault.status() : (body != null ? 200 : 404);
+        Mono<Void> reply = Mono.defer(() -> {
+            if (status != 200) {
+                return response.status(status).send();
+            }
+            return response.status(HttpResponseStatus.OK)
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.just(toJson(body)))
+                    .then();
+        });
+        return fault.latencyMs() > 0 ? Mono.delay(Duration.ofMillis(fault.latencyMs())).then(reply) : reply;
+    }
+
+    private String toJson(UserDetailsDTO body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    /**
+     * Comportamiento inyectado en una solicitud: latencia añadida y, con cierta probabilidad, un estado de error.
+     *
+     * @param latencyMs   latencia añadida en milisegundos.
+     * @param status      estado HTTP de error a devolver.
+     * @param probability probabilidad (0 a 1) de devolver el estado de error.
+     */
+    public record Fault(long latencyMs, int status, double probability) {
+
+        /**
+         * Sin latencia ni errores.
+         */
+        public static Fault none() {
+            return new Fault(0, 200, 0);
+        }
+
+        /**
+         * Respuesta correcta con latencia añadida.
+         */
+        public static Fault delay(long latencyMs) {
+            return new Fault(latencyMs, 200, 0);
+        }
+
+        /**
+         * Respuesta de error con el estado indicado.
+         */
+        public static Fault error(int status) {
+            return new Fault(0, status, 1);
+        }
+
+        boolean isTriggered() {
+            return probability > 0 && ThreadLocalRandom.current().nextDouble() < probability;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.diceprojects.msvcauthentication.support;
+
+import com.diceprojects.msvcauthentication.persistences.models.dtos.ParameterDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servidor local que simula los endpoints de msvc-configurations usados por este servicio
+ * ({@code /api/parameters/*}), con los parámetros guardados en memoria.
+ */
+public class StubConfigurationServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ParameterDTO> parameters = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+
+    private StubConfigurationServer() {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/parameters/ListAll", (request, response) ->
+                                respond(response, new ArrayList<>(parameters.values())))
+                        .get("/api/parameters/getParameterName/{name}", (request, response) ->
+                                respond(response, parameters.get(request.param("name"))))
+                        .post("/api/parameters", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> respond(response, save(body))))
+                        .delete("/api/parameters/delete/{id}", (request, response) -> {
+                            parameters.values().removeIf(parameter -> request.param("id").equals(parameter.getId()));
+                            return response.status(HttpResponseStatus.NO_CONTENT).send();
+                        }))
+                .bindNow();
+    }
+
+    /**
+     * Arranca un servidor en un puerto libre de localhost.
+     *
+     * @return el servidor arrancado.
+     */
+    public static StubConfigurationServer start() {
+        return new StubConfigurationServer();
+    }
+
+    /**
+     * Obtiene la URL base equivalente a {@code msvc.configurations.url}.
+     *
+     * @return la URL base del servidor.
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.port() + "/api";
+    }
+
+    /**
+     * Obtiene un parámetro guardado.
+     *
+     * @param name el nombre del parámetro.
+     * @return el parámetro, o {@code null} si no existe.
+     */
+    public ParameterDTO parameter(String name) {
+        return parameters.get(name);
+    }
+
+    private ParameterDTO save(String body) {
+        try {
+            ParameterDTO parameter = objectMapper.readValue(body, ParameterDTO.class);
+            ParameterDTO previous = parameters.get(parameter.getParameterName());
+            parameter.setId(previous != null ? previous.getId() : UUID.randomUUID().toString());
+            parameters.put(parameter.getParameterName(), parameter);
+            return parameter;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, Object body) {
+        if (body == null) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send().then();
+        }
+        try {
+            return response.status(HttpResponseStatus.OK)
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.just(objectMapper.writeValueAsString(body)))
+                    .then();
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
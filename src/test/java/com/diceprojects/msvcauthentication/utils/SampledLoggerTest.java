@@ -0,0 +1,46 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SampledLoggerTest {
+
+    private final Logger logger = Mockito.mock(Logger.class);
+
+    @Test
+    void reportsSuppressedMessagesInTheNextInterval() throws InterruptedException {
+        when(logger.isWarnEnabled()).thenReturn(true);
+        SampledLogger sampledLogger = new SampledLogger(logger, 2, 100);
+
+        for (int i = 0; i < 5; i++) {
+            sampledLogger.warn("Token JWT rechazado ({})", "expired");
+        }
+        verify(logger, times(2)).warn(eq("Token JWT rechazado ({})"), any(Object[].class));
+        verify(logger, never()).warn(anyString(), any(Object.class));
+
+        Thread.sleep(150);
+        sampledLogger.warn("Token JWT rechazado ({})", "expired");
+
+        verify(logger).warn("{} avisos similares omitidos en el intervalo anterior", 3L);
+        verify(logger, times(3)).warn(eq("Token JWT rechazado ({})"), any(Object[].class));
+    }
+
+    @Test
+    void logsNothingWhenDisabled() {
+        when(logger.isWarnEnabled()).thenReturn(true);
+        SampledLogger sampledLogger = new SampledLogger(logger, 0, 100);
+
+        sampledLogger.warn("Token JWT rechazado ({})", "expired");
+
+        verify(logger, never()).warn(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,44 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    @Test
+    void sharesPendingResultAndReleasesKeyOnCompletion() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.One<String> pending = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("token", () -> {
+            executions.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<String> second = singleFlight.execute("token", () -> {
+            executions.incrementAndGet();
+            return Mono.just("otro");
+        });
+        StringBuilder results = new StringBuilder();
+        first.subscribe(results::append);
+        second.subscribe(results::append);
+        assertEquals(1, singleFlight.inFlight());
+
+        pending.tryEmitValue("ok");
+        assertEquals("okok", results.toString());
+        assertEquals(1, executions.get());
+        assertEquals(1, singleFlight.joined());
+        assertEquals(0, singleFlight.inFlight());
+
+        assertEquals("nuevo", singleFlight.execute("token", () -> {
+            executions.incrementAndGet();
+            return Mono.just("nuevo");
+        }).block());
+        assertEquals(2, executions.get());
+    }
+}
@@ -0,0 +1,58 @@
+package com.diceprojects.msvcauthentication.utils;
+
+import com.diceprojects.msvcauthentication.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StageTimerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StageTimer timer = new StageTimer("auth.login", "token_sign", "test", meterRegistry);
+
+    @Test
+    void recordsEachSubscriptionByOutcome() {
+        Mono<String> stage = timer.time(Mono.just("token"));
+        StepVerifier.create(stage).expectNext("token").verifyComplete();
+        StepVerifier.create(stage).expectNext("token").verifyComplete();
+        StepVerifier.create(timer.time(Mono.empty())).verifyComplete();
+
+        assertEquals(2, timer("success").count());
+        assertEquals(1, timer("empty").count());
+        assertNull(meterRegistry.find("auth.login").tag("outcome", "error").timer());
+    }
+
+    @Test
+    void classifiesErrors() {
+        StepVerifier.create(timer.time(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED)))).verifyError();
+        StepVerifier.create(timer.time(Mono.error(new ServiceOverloadedException("lleno")))).verifyError();
+        StepVerifier.create(timer.time(Mono.error(new IllegalStateException("caído")))).verifyError();
+
+        assertEquals(1, timer("rejected").count());
+        assertEquals(1, timer("overloaded").count());
+        assertEquals(1, timer("error").count());
+    }
+
+    @Test
+    void recordsCancellation() {
+        StepVerifier.create(timer.time(Mono.never()))
+                .thenAwait(Duration.ofMillis(10))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, timer("cancelled").count());
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get("auth.login").tag("stage", "token_sign").tag("outcome", outcome).timer();
+    }
+}